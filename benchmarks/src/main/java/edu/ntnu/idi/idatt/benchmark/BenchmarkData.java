@@ -0,0 +1,94 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.Cookbook;
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the inventories, recipes and cookbooks used by the benchmarks.
+ * <p>
+ * All data is derived from a fixed seed so that runs are comparable release over release.
+ * </p>
+ */
+final class BenchmarkData {
+
+  static final long SEED = 42L;
+
+  private BenchmarkData() {
+  }
+
+  /**
+   * Returns the name of the ingredient with the given index.
+   *
+   * @param index the index of the ingredient
+   * @return the ingredient name
+   */
+  static String ingredientName(int index) {
+    return "ingredient-" + index;
+  }
+
+  /**
+   * Creates an inventory with the given number of ingredients, all in grams and with plenty of
+   * stock.
+   *
+   * @param size the number of distinct ingredients
+   * @return the populated inventory
+   */
+  static FoodInventory inventory(int size) {
+    FoodInventory inventory = new FoodInventory();
+    LocalDate today = LocalDate.now();
+    for (int i = 0; i < size; i++) {
+      inventory.addIngredient(new Ingredient(ingredientName(i), 1_000_000, Unit.GRAM,
+          today.plusDays(1 + i % 365), 0.05));
+    }
+    return inventory;
+  }
+
+  /**
+   * Creates a recipe whose ingredients are drawn at random from the first {@code inventorySize}
+   * ingredient names. Roughly {@code missingRatio} of the requirements name an ingredient that is
+   * not in the inventory.
+   *
+   * @param name                 the name of the recipe
+   * @param ingredientsPerRecipe the number of requirements in the recipe
+   * @param inventorySize        the number of ingredients in the inventory
+   * @param missingRatio         the share of requirements that cannot be satisfied
+   * @param random               the random source
+   * @return the recipe
+   */
+  static Recipe recipe(String name, int ingredientsPerRecipe, int inventorySize,
+      double missingRatio, SplittableRandom random) {
+    Recipe recipe = new Recipe(name, "Benchmark recipe", "Mix.", 4);
+    for (int i = 0; i < ingredientsPerRecipe; i++) {
+      int index = random.nextDouble() < missingRatio
+          ? inventorySize + random.nextInt(inventorySize)
+          : random.nextInt(inventorySize);
+      recipe.addIngredient(ingredientName(index), 1 + random.nextInt(500), Unit.GRAM);
+    }
+    return recipe;
+  }
+
+  /**
+   * Creates a cookbook with the given number of recipes.
+   *
+   * @param size                 the number of recipes
+   * @param ingredientsPerRecipe the number of requirements per recipe
+   * @param inventorySize        the number of ingredients in the inventory
+   * @param missingRatio         the share of requirements that cannot be satisfied
+   * @return the populated cookbook
+   */
+  static Cookbook cookbook(int size, int ingredientsPerRecipe, int inventorySize,
+      double missingRatio) {
+    SplittableRandom random = new SplittableRandom(SEED);
+    Cookbook cookbook = new Cookbook();
+    for (int i = 0; i < size; i++) {
+      cookbook.addRecipe(
+          recipe("recipe-" + i, ingredientsPerRecipe, inventorySize, missingRatio, random));
+    }
+    return cookbook;
+  }
+}
@@ -0,0 +1,90 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mixed add/remove workload against a shared {@link FoodInventory}.
+ *
+ * <p>
+ * Run with increasing thread counts, for example {@code -t 1}, {@code -t 8} and {@code -t 32}, to
+ * see how throughput scales across cores.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentInventoryBenchmark {
+
+  /**
+   * The inventory shared by all benchmark threads.
+   */
+  @State(Scope.Benchmark)
+  public static class SharedInventory {
+
+    @Param({"1000", "100000"})
+    public int inventorySize;
+
+    FoodInventory inventory;
+    LocalDate bestBefore;
+
+    /**
+     * Builds the inventory once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+      inventory = BenchmarkData.inventory(inventorySize);
+      bestBefore = LocalDate.now().plusDays(400);
+    }
+  }
+
+  /**
+   * Per-thread random source, so threads spread over different ingredients.
+   */
+  @State(Scope.Thread)
+  public static class ThreadCursor {
+
+    SplittableRandom random;
+
+    /**
+     * Seeds the random source once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+      random = new SplittableRandom(Thread.currentThread().threadId());
+    }
+  }
+
+  /**
+   * Adds a delivery to a random ingredient and deducts the same amount again.
+   *
+   * @param shared the shared inventory
+   * @param cursor the per-thread random source
+   * @return whether the removal found the ingredient
+   */
+  @Benchmark
+  public boolean mixedAddRemove(SharedInventory shared, ThreadCursor cursor) {
+    String name = BenchmarkData.ingredientName(cursor.random.nextInt(shared.inventorySize));
+    shared.inventory.addIngredient(
+        new Ingredient(name, 100, Unit.GRAM, shared.bestBefore, 0.05));
+    return shared.inventory.removeQuantity(name, 100, Unit.GRAM);
+  }
+}
@@ -0,0 +1,122 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.Cookbook;
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.RankedRecipe;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.RecipeBatches;
+import edu.ntnu.idi.idatt.model.RecipePrefilter;
+import edu.ntnu.idi.idatt.model.RecipeShortfall;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the cookbook-wide feasibility queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class CookbookBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  public int cookbookSize;
+
+  @Param({"4", "16"})
+  public int ingredientsPerRecipe;
+
+  @Param({"10000"})
+  public int inventorySize;
+
+  @Param({"0.05"})
+  public double missingRatio;
+
+  private Cookbook cookbook;
+  private FoodInventory inventory;
+
+  /**
+   * Builds the cookbook and inventory once per trial.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    inventory = BenchmarkData.inventory(inventorySize);
+    cookbook = BenchmarkData.cookbook(cookbookSize, ingredientsPerRecipe, inventorySize,
+        missingRatio);
+  }
+
+  /**
+   * Lists the recipes that can be made.
+   *
+   * @return the makeable recipes
+   */
+  @Benchmark
+  public List<Recipe> getRecipesCanBeMade() {
+    return cookbook.getRecipesCanBeMade(inventory);
+  }
+
+  /**
+   * Lists the recipes that can be made without the ingredient presence prefilter, as a baseline
+   * for {@link #getRecipesCanBeMade()}.
+   *
+   * @return the makeable recipes
+   */
+  @Benchmark
+  public List<Recipe> getRecipesCanBeMadeWithoutPrefilter() {
+    return cookbook.getRecipesCanBeMade(inventory, RecipePrefilter.none());
+  }
+
+  /**
+   * Lists the recipes that cannot be made.
+   *
+   * @return the recipes that cannot be made
+   */
+  @Benchmark
+  public List<Recipe> getRecipesCannotBeMade() {
+    return cookbook.getRecipesCannotBeMade(inventory);
+  }
+
+  /**
+   * Computes the max batches of every recipe.
+   *
+   * @return the batches, most first
+   */
+  @Benchmark
+  public List<RecipeBatches> getMaxBatches() {
+    return cookbook.getMaxBatches(inventory);
+  }
+
+  /**
+   * Finds the ten recipes closest to being makeable.
+   *
+   * @return the closest recipes
+   */
+  @Benchmark
+  public List<RecipeShortfall> getAlmostMakeableRecipes() {
+    return cookbook.getAlmostMakeableRecipes(inventory, 10);
+  }
+
+  /**
+   * Ranks the recipes using stock that expires within three days.
+   *
+   * @return the ranked recipes
+   */
+  @Benchmark
+  public List<RankedRecipe> getRecipesUsingExpiringStock() {
+    return cookbook.getRecipesUsingExpiringStock(inventory, LocalDate.now().plusDays(3));
+  }
+}
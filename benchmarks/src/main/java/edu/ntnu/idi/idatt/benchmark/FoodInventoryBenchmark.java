@@ -0,0 +1,92 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the mutating hot paths of {@link FoodInventory}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class FoodInventoryBenchmark {
+
+  @Param({"10", "1000", "100000", "10000000"})
+  public int inventorySize;
+
+  private FoodInventory inventory;
+  private String[] names;
+  private LocalDate bestBefore;
+  private int next;
+
+  /**
+   * Builds the inventory once per trial.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    inventory = BenchmarkData.inventory(inventorySize);
+    int keys = Math.min(inventorySize, 1 << 16);
+    names = new String[keys];
+    for (int i = 0; i < keys; i++) {
+      names[i] = BenchmarkData.ingredientName((int) ((long) i * inventorySize / keys));
+    }
+    bestBefore = LocalDate.now().plusDays(400);
+  }
+
+  private String nextName() {
+    String name = names[next];
+    next = next + 1 == names.length ? 0 : next + 1;
+    return name;
+  }
+
+  /**
+   * Merges a delivery into an existing ingredient, converting units on the way.
+   *
+   * @return the inventory, to keep the work observable
+   */
+  @Benchmark
+  public FoodInventory addIngredientMerge() {
+    inventory.addIngredient(new Ingredient(nextName(), 0.25, Unit.KILOGRAM, bestBefore, 0.05));
+    return inventory;
+  }
+
+  /**
+   * Deducts a quantity and puts it back, so the inventory stays at a steady state.
+   *
+   * @return whether the removal found the ingredient
+   */
+  @Benchmark
+  public boolean addThenRemoveQuantity() {
+    String name = nextName();
+    inventory.addIngredient(new Ingredient(name, 250, Unit.GRAM, bestBefore, 0.05));
+    return inventory.removeQuantity(name, 0.25, Unit.KILOGRAM);
+  }
+
+  /**
+   * Looks an ingredient up by name.
+   *
+   * @return the ingredient found
+   */
+  @Benchmark
+  public Ingredient findIngredientByName() {
+    return inventory.findIngredientByName(nextName());
+  }
+}
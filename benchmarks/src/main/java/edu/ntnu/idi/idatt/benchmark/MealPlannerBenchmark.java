@@ -0,0 +1,77 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.MealPlan;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.service.MealPlanner;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Households planned per minute per thread by the meal planner.
+ *
+ * <p>
+ * Each operation plans one household: an inventory the size of a family fridge and pantry, and a
+ * cookbook of a few hundred recipes. The time budget caps each plan, so throughput is roughly one
+ * minute divided by the budget plus the greedy pass; run with more threads ({@code -t}) to see
+ * the rate across a host.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MealPlannerBenchmark {
+
+  @Param({"60"})
+  public int inventorySize;
+
+  @Param({"300"})
+  public int cookbookSize;
+
+  @Param({"7"})
+  public int days;
+
+  @Param({"1", "20"})
+  public int timeBudgetMillis;
+
+  private FoodInventory inventory;
+  private List<Recipe> recipes;
+  private MealPlanner planner;
+
+  /**
+   * Builds the household and planner once per trial.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    inventory = BenchmarkData.inventory(inventorySize);
+    recipes = BenchmarkData.cookbook(cookbookSize, 4, inventorySize, 0.1).getAllRecipes();
+    planner = new MealPlanner(Duration.ofMillis(timeBudgetMillis));
+  }
+
+  /**
+   * Plans one household.
+   *
+   * @return the plan
+   */
+  @Benchmark
+  public MealPlan plan() {
+    return planner.plan(recipes, inventory, LocalDate.now(), days);
+  }
+}
@@ -0,0 +1,88 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.Cookbook;
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Recipe;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation profile of the case-insensitive name lookups.
+ *
+ * <p>
+ * Every lookup uses a name in different case from the stored one, so the case folding is
+ * exercised. Run with the GC profiler (the default in {@link BenchmarkRunner}); the
+ * {@code gc.alloc.rate.norm} column should read 0 B/op for every benchmark here.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NameLookupBenchmark {
+
+  @Param({"100", "10000"})
+  public int size;
+
+  private FoodInventory inventory;
+  private Cookbook cookbook;
+  private String ingredientName;
+  private String recipeName;
+
+  /**
+   * Builds the inventory and cookbook once per trial and picks upper-case names to look up.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    inventory = BenchmarkData.inventory(size);
+    cookbook = BenchmarkData.cookbook(size, 4, size, 0.0);
+    Ingredient ingredient = inventory.getAllIngredientsSortedByName().get(size / 2);
+    ingredientName = ingredient.getName().toUpperCase();
+    Recipe recipe = cookbook.getAllRecipes().get(size / 2);
+    recipeName = recipe.getName().toUpperCase();
+  }
+
+  /**
+   * Looks up an ingredient by name.
+   *
+   * @return the ingredient
+   */
+  @Benchmark
+  public Ingredient findIngredientByName() {
+    return inventory.findIngredientByName(ingredientName);
+  }
+
+  /**
+   * Looks up a recipe by name.
+   *
+   * @return the recipe
+   */
+  @Benchmark
+  public Recipe findRecipeByName() {
+    return cookbook.findRecipeByName(recipeName);
+  }
+
+  /**
+   * Checks whether a recipe exists.
+   *
+   * @return true if the recipe exists
+   */
+  @Benchmark
+  public boolean containsRecipe() {
+    return cookbook.containsRecipe(recipeName);
+  }
+}
@@ -0,0 +1,91 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.Cookbook;
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Recipe;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the sequential and parallel cookbook feasibility checks across pool sizes.
+ *
+ * <p>
+ * The {@code sequential} benchmark is the baseline. Running with {@code -p parallelism=8,16,32}
+ * on the target hosts shows the cookbook size from which the parallel path pays off, which is
+ * what {@link Cookbook#PARALLEL_THRESHOLD} should be tuned against. The threshold is bypassed for
+ * cookbooks below it, so the small sizes measure the fallback rather than the split.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ParallelCookbookBenchmark {
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int cookbookSize;
+
+  @Param({"8"})
+  public int ingredientsPerRecipe;
+
+  @Param({"2", "8", "16", "32"})
+  public int parallelism;
+
+  private Cookbook cookbook;
+  private FoodInventory inventory;
+  private ForkJoinPool pool;
+
+  /**
+   * Builds the cookbook, inventory and pool once per trial.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    inventory = BenchmarkData.inventory(10_000);
+    cookbook = BenchmarkData.cookbook(cookbookSize, ingredientsPerRecipe, 10_000, 0.05);
+    pool = new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Shuts the pool down after the trial.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Checks every recipe on the calling thread.
+   *
+   * @return the makeable recipes
+   */
+  @Benchmark
+  public List<Recipe> sequential() {
+    return cookbook.getRecipesCanBeMade(inventory);
+  }
+
+  /**
+   * Checks the recipes on the pool.
+   *
+   * @return the makeable recipes
+   */
+  @Benchmark
+  public List<Recipe> parallel() {
+    return cookbook.getRecipesCanBeMade(inventory, pool);
+  }
+}
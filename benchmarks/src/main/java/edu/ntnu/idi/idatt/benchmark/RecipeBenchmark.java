@@ -0,0 +1,62 @@
+package edu.ntnu.idi.idatt.benchmark;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Recipe;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link Recipe#canBeMadeFromInventory(FoodInventory)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeBenchmark {
+
+  @Param({"1000", "100000"})
+  public int inventorySize;
+
+  @Param({"2", "8", "32"})
+  public int ingredientsPerRecipe;
+
+  @Param({"0.0", "0.1"})
+  public double missingRatio;
+
+  private FoodInventory inventory;
+  private Recipe recipe;
+
+  /**
+   * Builds the inventory and recipe once per trial.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    inventory = BenchmarkData.inventory(inventorySize);
+    recipe = BenchmarkData.recipe("recipe", ingredientsPerRecipe, inventorySize, missingRatio,
+        new SplittableRandom(BenchmarkData.SEED));
+  }
+
+  /**
+   * Checks whether the recipe can be made.
+   *
+   * @return the result of the check
+   */
+  @Benchmark
+  public boolean canBeMadeFromInventory() {
+    return recipe.canBeMadeFromInventory(inventory);
+  }
+}
@@ -1,6 +1,20 @@
 package edu.ntnu.idi.idatt;
 
+import edu.ntnu.idi.idatt.service.InventoryService;
+import edu.ntnu.idi.idatt.service.RecipeService;
+import edu.ntnu.idi.idatt.ui.BatchRunner;
 import edu.ntnu.idi.idatt.ui.UserInterface;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * The entry point of the application.
@@ -9,15 +23,28 @@ import edu.ntnu.idi.idatt.ui.UserInterface;
  * This class contains the {@code main} method which initializes and starts the user interface. It
  * serves as the starting point when the application is launched.
  * </p>
+ *
+ * <p>
+ * With {@code --batch [file]} the menu is skipped and the commands in the file, or on standard
+ * input if no file is given, are run by a {@link BatchRunner} against an empty inventory and
+ * cookbook. The exit status is 2 if any command failed.
+ * </p>
  */
 public class Main {
 
+  private static final String BATCH_OPTION = "--batch";
+  private static final int BUFFER_SIZE = 1 << 16;
+
   /**
    * The main method to run the application.
    *
-   * @param args command-line arguments (currently unused)
+   * @param args command-line arguments; {@code --batch [file]} runs a script instead of the menu
    */
   public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+      runBatch(args.length > 1 ? Path.of(args[1]) : null);
+      return;
+    }
     UserInterface ui = new UserInterface();
     try {
       ui.init();
@@ -28,4 +55,29 @@ public class Main {
       System.exit(1);
     }
   }
+
+  /**
+   * Runs a command script and exits with a non-zero status if any command failed.
+   *
+   * @param script the script file, or null to read standard input
+   */
+  private static void runBatch(Path script) {
+    // Write straight to the file descriptor so output is not flushed line by line by System.out
+    Writer out = new BufferedWriter(new OutputStreamWriter(
+        new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), BUFFER_SIZE);
+    long failures;
+    try (BufferedReader in = script == null
+        ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8),
+            BUFFER_SIZE)
+        : Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+      failures = new BatchRunner(new InventoryService(), new RecipeService(), out).run(in);
+    } catch (IOException e) {
+      System.err.println("Error running batch: " + e.getMessage());
+      System.exit(1);
+      return;
+    }
+    if (failures > 0) {
+      System.exit(2);
+    }
+  }
 }
@@ -1,10 +1,20 @@
 package edu.ntnu.idi.idatt.model;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 
 /**
@@ -13,16 +23,65 @@ import java.util.stream.Collectors;
  * This class allows adding recipes to the cookbook, finding recipes by name, retrieving all
  * recipes, and getting recipes that can be made with a given food inventory.
  * </p>
+ *
+ * <p>
+ * Alongside the recipes themselves the cookbook keeps an inverted index from
+ * {@link IngredientDictionary} id to the recipes that require it, so that questions about a single
+ * ingredient only touch the recipes that actually reference it.
+ * </p>
+ *
+ * <p>
+ * Recipes are stored in a {@link NameTable}, so lookups by recipe name are case-insensitive and do
+ * not allocate. A second, sorted index by normalized name backs {@link #getRecipesPage}.
+ * </p>
  */
 public class Cookbook {
 
-  private final Map<String, Recipe> recipes;
+  /**
+   * Cookbooks with fewer recipes than this are always checked sequentially, since splitting the
+   * work costs more than it saves.
+   */
+  public static final int PARALLEL_THRESHOLD = 4096;
+
+  /**
+   * Number of recipes a single parallel task checks without splitting further.
+   */
+  private static final int PARALLEL_CHUNK = 1024;
+
+  /**
+   * Orders recipes by normalized name, the same order as {@link #getRecipesPage}.
+   */
+  private static final Comparator<Recipe> BY_NAME =
+      Comparator.comparing(recipe -> NameTable.normalize(recipe.getName()));
+
+  private final NameTable<Recipe> recipes;
+  private final NavigableMap<String, Recipe> recipesByName;
+  private final Map<Integer, Set<Recipe>> recipesByIngredient;
 
   /**
    * Constructs an empty Cookbook.
    */
   public Cookbook() {
-    this.recipes = new HashMap<>();
+    this.recipes = new NameTable<>();
+    this.recipesByName = new ConcurrentSkipListMap<>();
+    this.recipesByIngredient = new HashMap<>();
+  }
+
+  /**
+   * Normalizes a recipe name the way the cookbook compares names: surrounding whitespace is
+   * trimmed and every character is lower-cased without regard to the default locale. Code that
+   * sorts or matches recipe names outside the cookbook should use this so that it agrees with the
+   * cookbook.
+   *
+   * @param name the name to normalize; cannot be null
+   * @return the normalized name
+   * @throws IllegalArgumentException if the name is null
+   */
+  public static String normalizeName(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("Recipe name cannot be null.");
+    }
+    return NameTable.normalize(name);
   }
 
   /**
@@ -35,15 +94,44 @@ public class Cookbook {
     if (recipe == null) {
       throw new IllegalArgumentException("Recipe cannot be null.");
     }
-    String key = recipe.getName().toLowerCase();
-    if (recipes.containsKey(key)) {
+    if (recipes.putIfAbsent(recipe.getName(), recipe) != null) {
       throw new IllegalArgumentException("Recipe already exists in the cookbook.");
     }
-    recipes.put(key, recipe);
+    recipesByName.put(NameTable.normalize(recipe.getName()), recipe);
+    indexRecipe(recipe);
   }
 
   /**
-   * Finds a recipe by name.
+   * Adds many recipes in one pass. A recipe whose name is already in the cookbook, or appears
+   * earlier in the collection, is not added and is returned instead of causing an exception.
+   *
+   * @param recipes the recipes to add; cannot be null or contain null
+   * @return the recipes that were not added because of duplicate names, in collection order
+   * @throws IllegalArgumentException if the collection is null or contains null
+   */
+  public List<Recipe> addRecipes(Collection<Recipe> recipes) {
+    if (recipes == null) {
+      throw new IllegalArgumentException("Recipes cannot be null.");
+    }
+    for (Recipe recipe : recipes) {
+      if (recipe == null) {
+        throw new IllegalArgumentException("Recipe cannot be null.");
+      }
+    }
+    List<Recipe> duplicates = new ArrayList<>();
+    for (Recipe recipe : recipes) {
+      if (this.recipes.putIfAbsent(recipe.getName(), recipe) != null) {
+        duplicates.add(recipe);
+        continue;
+      }
+      recipesByName.put(NameTable.normalize(recipe.getName()), recipe);
+      indexRecipe(recipe);
+    }
+    return duplicates;
+  }
+
+  /**
+   * Finds a recipe by name. The name is matched case-insensitively without allocating.
    *
    * @param name the name of the recipe; cannot be null or empty
    * @return the recipe if found, or null if not found
@@ -51,7 +139,7 @@ public class Cookbook {
    */
   public Recipe findRecipeByName(String name) {
     validateName(name);
-    return recipes.get(name.toLowerCase());
+    return recipes.get(name);
   }
 
   /**
@@ -60,26 +148,263 @@ public class Cookbook {
    * @return a list of recipes
    */
   public List<Recipe> getAllRecipes() {
-    return Collections.unmodifiableList(new ArrayList<>(recipes.values()));
+    return Collections.unmodifiableList(recipes.values());
   }
 
   /**
-   * Returns a list of recipes that can be made with the provided inventory.
+   * Returns one page of recipes in case-insensitive name order. Only the requested page is copied;
+   * pass the cursor of each page to get the next one.
+   *
+   * @param cursor   the cursor of the previous page, or null for the first page
+   * @param pageSize the maximum number of recipes on the page; must be positive
+   * @return the page
+   * @throws IllegalArgumentException if the page size is not positive or the cursor is invalid
+   */
+  public Page<Recipe> getRecipesPage(String cursor, int pageSize) {
+    return Page.of(recipesByName, cursor, pageSize);
+  }
+
+  /**
+   * Returns a list of recipes that can be made with the provided inventory. Recipes with an
+   * ingredient that is not in stock at all are rejected by
+   * {@link RecipePrefilter#ingredientPresence()} before their quantities are checked.
    *
    * @param inventory the food inventory to check against; cannot be null
    * @return a list of recipes that can be made
    * @throws IllegalArgumentException if the inventory is null
    */
   public List<Recipe> getRecipesCanBeMade(FoodInventory inventory) {
+    return getRecipesCanBeMade(inventory, RecipePrefilter.ingredientPresence());
+  }
+
+  /**
+   * Returns a list of recipes that can be made with the provided inventory, running the given
+   * prefilter before the full check of each recipe.
+   *
+   * @param inventory the food inventory to check against; cannot be null
+   * @param prefilter the first stage of the check; cannot be null
+   * @return a list of recipes that can be made
+   * @throws IllegalArgumentException if the inventory or prefilter is null
+   */
+  public List<Recipe> getRecipesCanBeMade(FoodInventory inventory, RecipePrefilter prefilter) {
     if (inventory == null) {
       throw new IllegalArgumentException("Inventory cannot be null.");
     }
+    if (prefilter == null) {
+      throw new IllegalArgumentException("Prefilter cannot be null.");
+    }
 
     return recipes.values().stream()
+        .filter(recipe -> prefilter.mayBeMade(recipe, inventory))
         .filter(recipe -> recipe.canBeMadeFromInventory(inventory))
         .collect(Collectors.toList());
   }
 
+  /**
+   * Returns how many whole batches of every recipe the inventory allows, most batches first and
+   * recipes with equal batches by name.
+   * <p>
+   * The stock is copied once into arrays indexed by ingredient id (see {@link StockLevels}), and
+   * every recipe is then computed from that copy in a single pass, without looking anything up in
+   * the inventory.
+   * </p>
+   *
+   * @param inventory the food inventory to check against; cannot be null
+   * @return the batches of every recipe, including recipes that cannot be made at all
+   * @throws IllegalArgumentException if the inventory is null
+   */
+  public List<RecipeBatches> getMaxBatches(FoodInventory inventory) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+
+    StockLevels stock = inventory.getStockLevels();
+    List<RecipeBatches> batches = new ArrayList<>(recipes.size());
+    for (Recipe recipe : recipes.values()) {
+      batches.add(new RecipeBatches(recipe, recipe.getMaxBatches(stock)));
+    }
+    batches.sort(Comparator.comparingLong(RecipeBatches::batches).reversed()
+        .thenComparing(RecipeBatches::recipe, BY_NAME));
+    return batches;
+  }
+
+  /**
+   * Returns, for every recipe that cannot be made, the ingredients it lacks and by how much.
+   *
+   * @param inventory the food inventory to check against; cannot be null
+   * @return the shortfalls of the recipes that cannot be made
+   * @throws IllegalArgumentException if the inventory is null
+   */
+  public List<RecipeShortfall> getShortfalls(FoodInventory inventory) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+
+    StockLevels stock = inventory.getStockLevels();
+    List<RecipeShortfall> shortfalls = new ArrayList<>();
+    for (Recipe recipe : recipes.values()) {
+      RecipeShortfall shortfall = recipe.getShortfall(stock);
+      if (!shortfall.missing().isEmpty()) {
+        shortfalls.add(shortfall);
+      }
+    }
+    return shortfalls;
+  }
+
+  /**
+   * Returns the recipes that cannot be made but come closest, smallest total shortfall first and
+   * recipes with equal shortfall by name.
+   * <p>
+   * Recipes are scored without building their shortfall reports, and only the best {@code limit}
+   * are kept in a bounded heap, so a report is built only for recipes that enter the heap.
+   * </p>
+   *
+   * @param inventory the food inventory to check against; cannot be null
+   * @param limit     the maximum number of recipes to return; must be positive
+   * @return up to {@code limit} shortfalls, closest first
+   * @throws IllegalArgumentException if the inventory is null or the limit is not positive
+   */
+  public List<RecipeShortfall> getAlmostMakeableRecipes(FoodInventory inventory, int limit) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive.");
+    }
+
+    Comparator<RecipeShortfall> closestFirst =
+        Comparator.comparingDouble(RecipeShortfall::totalShortfall)
+            .thenComparing(RecipeShortfall::recipe, BY_NAME);
+    StockLevels stock = inventory.getStockLevels();
+    PriorityQueue<RecipeShortfall> best = new PriorityQueue<>(
+        Math.max(1, Math.min(limit, recipes.size())), closestFirst.reversed());
+    for (Recipe recipe : recipes.values()) {
+      double total = recipe.getTotalShortfall(stock);
+      if (total == 0) {
+        continue;
+      }
+      RecipeShortfall worst = best.peek();
+      if (best.size() < limit || total <= worst.totalShortfall()) {
+        RecipeShortfall shortfall = recipe.getShortfall(stock);
+        if (best.size() < limit) {
+          best.add(shortfall);
+        } else if (closestFirst.compare(shortfall, worst) < 0) {
+          best.poll();
+          best.add(shortfall);
+        }
+      }
+    }
+
+    List<RecipeShortfall> closest = new ArrayList<>(best);
+    closest.sort(closestFirst);
+    return closest;
+  }
+
+  /**
+   * Ranks the makeable recipes by the value of soon-to-expire stock they would use up, highest
+   * first and recipes with equal value by name.
+   * <p>
+   * The score of a recipe is, summed over its ingredients with lots that expire before the given
+   * date, the value of the expiring lots the recipe would use up. A recipe takes from the lots of
+   * an ingredient first-expired-first-out, so each expiring lot is counted up to the quantity left
+   * after the earlier lots, at that lot's own price; stock that expires later is not counted. The
+   * work is driven by the expiring stock: the inventory's expiry index yields the expiring
+   * ingredients, the ingredient index of the cookbook yields the recipes that use each of them,
+   * and only those recipes are scored and checked. Recipes that use no expiring stock are never
+   * visited.
+   * </p>
+   *
+   * @param inventory the food inventory to check against; cannot be null
+   * @param date      stock with a best-before date before this date counts as expiring; cannot be
+   *                  null
+   * @return the makeable recipes that use expiring stock, most valuable first
+   * @throws IllegalArgumentException if the inventory or date is null
+   */
+  public List<RankedRecipe> getRecipesUsingExpiringStock(FoodInventory inventory,
+      LocalDate date) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    if (date == null) {
+      throw new IllegalArgumentException("Date cannot be null.");
+    }
+
+    Map<Recipe, Double> scores = new HashMap<>();
+    for (Ingredient ingredient : inventory.getIngredientsExpiringBefore(date)) {
+      Set<Recipe> users = recipesByIngredient.get(ingredient.getId());
+      if (users == null) {
+        continue;
+      }
+      List<Lot> lots = ingredient.getLots();
+      for (Recipe recipe : users) {
+        int index = recipe.indexOfIngredient(ingredient.getId());
+        if (index < 0 || !recipe.getUnitAt(index).isCompatibleWith(ingredient.getUnit())) {
+          continue;
+        }
+        long needed = recipe.getBaseQuantityAt(index);
+        double value = 0;
+        for (Lot lot : lots) {
+          if (needed == 0 || !lot.getBestBeforeDate().isBefore(date)) {
+            break;
+          }
+          long used = Math.min(needed, lot.getBaseQuantity());
+          value += ingredient.getUnit().fromMicroBaseUnits(used) * lot.getPricePerUnit();
+          needed -= used;
+        }
+        scores.merge(recipe, value, Double::sum);
+      }
+    }
+
+    List<RankedRecipe> ranking = new ArrayList<>(scores.size());
+    for (Map.Entry<Recipe, Double> score : scores.entrySet()) {
+      if (score.getKey().canBeMadeFromInventory(inventory)) {
+        ranking.add(new RankedRecipe(score.getKey(), score.getValue()));
+      }
+    }
+    ranking.sort(Comparator.comparingDouble(RankedRecipe::score).reversed()
+        .thenComparing(RankedRecipe::recipe, BY_NAME));
+    return ranking;
+  }
+
+  /**
+   * Returns a list of recipes that can be made with the provided inventory, checking the recipes
+   * in parallel on the given pool.
+   * <p>
+   * Cookbooks smaller than {@link #PARALLEL_THRESHOLD} are checked sequentially. Both paths use
+   * the ingredient presence prefilter. The result holds
+   * the same recipes in the same order as {@link #getRecipesCanBeMade(FoodInventory)}, whatever the
+   * number of threads.
+   * </p>
+   *
+   * @param inventory the food inventory to check against; cannot be null
+   * @param pool      the pool to run the checks on; cannot be null
+   * @return a list of recipes that can be made
+   * @throws IllegalArgumentException if the inventory or pool is null
+   */
+  public List<Recipe> getRecipesCanBeMade(FoodInventory inventory, ForkJoinPool pool) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null.");
+    }
+    if (recipes.size() < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+      return getRecipesCanBeMade(inventory);
+    }
+
+    Recipe[] candidates = recipes.values().toArray(new Recipe[0]);
+    boolean[] makeable = new boolean[candidates.length];
+    pool.invoke(new FeasibilityTask(candidates, makeable, inventory, 0, candidates.length));
+
+    List<Recipe> availableRecipes = new ArrayList<>();
+    for (int i = 0; i < candidates.length; i++) {
+      if (makeable[i]) {
+        availableRecipes.add(candidates[i]);
+      }
+    }
+    return availableRecipes;
+  }
+
 
   /**
    * Validates that the name is not null or empty.
@@ -88,7 +413,7 @@ public class Cookbook {
    * @throws IllegalArgumentException if the name is null or empty
    */
   private void validateName(String name) {
-    if (name == null || name.trim().isEmpty()) {
+    if (name == null || NameTable.isBlank(name)) {
       throw new IllegalArgumentException("Recipe name cannot be null or empty.");
     }
   }
@@ -102,7 +427,63 @@ public class Cookbook {
    */
   public boolean removeRecipe(String name) {
     validateName(name);
-    return recipes.remove(name.toLowerCase()) != null;
+    Recipe removed = recipes.remove(name);
+    if (removed == null) {
+      return false;
+    }
+    recipesByName.remove(NameTable.normalize(removed.getName()));
+    unindexRecipe(removed);
+    return true;
+  }
+
+  /**
+   * Returns the recipes that use the given ingredient.
+   * <p>
+   * The lookup goes through the ingredient index and does not scan the cookbook. Ingredients added
+   * to a recipe after it was added to the cookbook are not reflected until the recipe is removed
+   * and added again.
+   * </p>
+   *
+   * @param ingredientName the name of the ingredient; cannot be null or empty
+   * @return an unmodifiable list of recipes that require the ingredient, empty if none do
+   * @throws IllegalArgumentException if the ingredient name is null or empty
+   */
+  public List<Recipe> getRecipesUsingIngredient(String ingredientName) {
+    if (ingredientName == null || NameTable.isBlank(ingredientName)) {
+      throw new IllegalArgumentException("Ingredient name cannot be null or empty.");
+    }
+    int id = IngredientDictionary.lookup(ingredientName);
+    Set<Recipe> users = id < 0 ? null : recipesByIngredient.get(id);
+    if (users == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(new ArrayList<>(users));
+  }
+
+  /**
+   * Adds the recipe to the ingredient index under each of its ingredient ids.
+   *
+   * @param recipe the recipe to index
+   */
+  private void indexRecipe(Recipe recipe) {
+    for (int i = 0; i < recipe.getRequirementCount(); i++) {
+      recipesByIngredient.computeIfAbsent(recipe.getIngredientIdAt(i),
+          k -> new LinkedHashSet<>()).add(recipe);
+    }
+  }
+
+  /**
+   * Removes the recipe from the ingredient index, dropping entries that become empty.
+   *
+   * @param recipe the recipe to remove from the index
+   */
+  private void unindexRecipe(Recipe recipe) {
+    for (int i = 0; i < recipe.getRequirementCount(); i++) {
+      Set<Recipe> users = recipesByIngredient.get(recipe.getIngredientIdAt(i));
+      if (users != null && users.remove(recipe) && users.isEmpty()) {
+        recipesByIngredient.remove(recipe.getIngredientIdAt(i));
+      }
+    }
   }
 
   /**
@@ -114,7 +495,7 @@ public class Cookbook {
    */
   public boolean containsRecipe(String name) {
     validateName(name);
-    return recipes.containsKey(name.toLowerCase());
+    return recipes.get(name) != null;
   }
 
   /**
@@ -137,4 +518,44 @@ public class Cookbook {
     }
     return unavailableRecipes;
   }
+
+  /**
+   * Checks a range of recipes against the inventory, splitting it in halves until each part is
+   * small enough to check directly. Each task writes only its own slots of the result array.
+   */
+  private static final class FeasibilityTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    // Tasks only live inside one invoke() call and are never serialized.
+    private final transient Recipe[] candidates;
+    private final transient boolean[] makeable;
+    private final transient FoodInventory inventory;
+    private final int from;
+    private final int to;
+
+    FeasibilityTask(Recipe[] candidates, boolean[] makeable, FoodInventory inventory, int from,
+        int to) {
+      this.candidates = candidates;
+      this.makeable = makeable;
+      this.inventory = inventory;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= PARALLEL_CHUNK) {
+        RecipePrefilter prefilter = RecipePrefilter.ingredientPresence();
+        for (int i = from; i < to; i++) {
+          makeable[i] = prefilter.mayBeMade(candidates[i], inventory)
+              && candidates[i].canBeMadeFromInventory(inventory);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new FeasibilityTask(candidates, makeable, inventory, from, middle),
+          new FeasibilityTask(candidates, makeable, inventory, middle, to));
+    }
+  }
 }
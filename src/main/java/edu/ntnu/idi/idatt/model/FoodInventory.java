@@ -1,11 +1,20 @@
 package edu.ntnu.idi.idatt.model;
 
 import java.time.LocalDate;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages a collection of ingredients in the food inventory.
@@ -13,16 +22,100 @@ import java.util.stream.Collectors;
  * This class allows adding ingredients to the inventory, removing quantities, finding ingredients
  * by name, and retrieving ingredients based on their best-before dates.
  * </p>
+ *
+ * <p>
+ * Ingredients are stored in a map ordered by normalized name, so listings in name order are a walk
+ * over the map and never need a sort. They are also kept in a table indexed by
+ * {@link IngredientDictionary} id, which is what recipes use to check their requirements, and a
+ * bitset of the ids in stock lets a recipe with a missing ingredient be rejected with a few word
+ * comparisons (see {@link #containsAllIngredientsOf(Recipe)}).
+ * </p>
+ *
+ * <p>
+ * Ingredients are additionally indexed by best-before date, so expiry queries are range scans
+ * over the index rather than scans over the whole inventory. The index is kept up to date by the
+ * inventory's own mutators; changing the best-before date of a stored ingredient directly through
+ * {@link Ingredient#setBestBeforeDate(LocalDate)} bypasses it.
+ * </p>
+ *
+ * <p>
+ * The inventory is safe for use by multiple threads. Both maps are concurrent skip lists, so reads
+ * never block. Every mutation runs under one of a fixed set of striped locks chosen by the
+ * ingredient's dictionary id, which makes the merge in {@link #addIngredient(Ingredient)} and
+ * the deduct or remove-at-zero in {@link #removeQuantity(String, double, Unit)} atomic per
+ * ingredient while mutations of different ingredients proceed in parallel. Operations that touch
+ * several ingredients, such as {@link #consumeRecipes(Map)}, take the locks they need in stripe
+ * order and are atomic across all of them.
+ * </p>
+ *
+ * <p>
+ * The value of the stock is kept as running totals, overall and per {@link Unit.UnitType}, that
+ * every mutation adjusts by the change in value of the ingredient it touched, so
+ * {@link #getTotalValue()} and {@link #getValue(Unit.UnitType)} are constant-time reads. The
+ * totals are fixed-point millionths of a krone held in atomics, so concurrent mutations add up
+ * exactly and never lose an update. Like the expiry index, they only follow changes made through
+ * the inventory.
+ * </p>
+ *
+ * <p>
+ * Registered {@link InventoryListener}s are told about every mutation before it is applied, which
+ * is how the inventory is made durable.
+ * </p>
  */
 public class FoodInventory {
 
-  private final Map<String, Ingredient> inventory;
+  private static final int LOCK_STRIPES = 64;
+  private static final double MICROS_PER_KRONE = 1_000_000.0;
+
+  private final NavigableMap<String, Ingredient> inventory;
+  private final NavigableMap<ExpiryKey, Ingredient> expiryIndex;
+  private final Object byIdLock;
+  private volatile AtomicReferenceArray<Ingredient> byId;
+  private volatile AtomicLongArray presence;
+  private final ReentrantLock[] locks;
+  private final List<InventoryListener> listeners;
+  private final AtomicLong totalValue;
+  private final AtomicLongArray valueByUnitType;
 
   /**
    * Constructs an empty FoodInventory.
    */
   public FoodInventory() {
-    this.inventory = new HashMap<>();
+    this.inventory = new ConcurrentSkipListMap<>();
+    this.expiryIndex = new ConcurrentSkipListMap<>();
+    this.byIdLock = new Object();
+    this.byId = new AtomicReferenceArray<>(Math.max(16, IngredientDictionary.size()));
+    this.presence = new AtomicLongArray(byId.length() / Long.SIZE + 1);
+    this.locks = new ReentrantLock[LOCK_STRIPES];
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new ReentrantLock();
+    }
+    this.listeners = new CopyOnWriteArrayList<>();
+    this.totalValue = new AtomicLong();
+    this.valueByUnitType = new AtomicLongArray(Unit.UnitType.values().length);
+  }
+
+  /**
+   * Registers a listener that is told about every mutation before it is applied.
+   *
+   * @param listener the listener to add; cannot be null
+   * @throws IllegalArgumentException if the listener is null
+   */
+  public void addListener(InventoryListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null.");
+    }
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a previously registered listener.
+   *
+   * @param listener the listener to remove
+   * @return true if the listener was registered
+   */
+  public boolean removeListener(InventoryListener listener) {
+    return listeners.remove(listener);
   }
 
   /**
@@ -36,35 +129,87 @@ public class FoodInventory {
       throw new IllegalArgumentException("Ingredient cannot be null.");
     }
 
-    String key = ingredient.getName().toLowerCase();
-    if (inventory.containsKey(key)) {
-      Ingredient existingIngredient = inventory.get(key);
+    int id = ingredient.getId();
+    ReentrantLock lock = lockFor(id);
+    lock.lock();
+    try {
+      mergeIngredient(id, ingredient);
+    } finally {
+      lock.unlock();
+    }
+  }
 
-      if (!existingIngredient.getUnit().isCompatibleWith(ingredient.getUnit())) {
-        throw new IllegalArgumentException(
-            "Units are incompatible for ingredient: " + ingredient.getName());
+  /**
+   * Adds many ingredients at once. The locks for all of them are taken once for the whole batch
+   * instead of once per ingredient, and ingredients are merged in list order, exactly as
+   * {@link #addIngredient(Ingredient)} would merge them one by one.
+   * <p>
+   * An ingredient that cannot be merged, because its unit is incompatible with the stored
+   * ingredient of the same name, is skipped and reported; the rest of the batch is still added.
+   * </p>
+   *
+   * @param ingredients the ingredients to add; cannot be null or contain null
+   * @return the error message of each skipped ingredient by its position in the list, empty if all
+   *         were added
+   * @throws IllegalArgumentException if the list is null or contains null
+   */
+  public Map<Integer, String> addIngredients(List<Ingredient> ingredients) {
+    if (ingredients == null) {
+      throw new IllegalArgumentException("Ingredients cannot be null.");
+    }
+    List<Integer> ids = new ArrayList<>(ingredients.size());
+    for (Ingredient ingredient : ingredients) {
+      if (ingredient == null) {
+        throw new IllegalArgumentException("Ingredient cannot be null.");
       }
+      ids.add(ingredient.getId());
+    }
 
-      double existingQuantityInBaseUnit = existingIngredient.getUnit()
-          .toBaseUnit(existingIngredient.getQuantity());
-      double newQuantityInBaseUnit = ingredient.getUnit().toBaseUnit(ingredient.getQuantity());
-      double totalQuantityInBaseUnit = existingQuantityInBaseUnit + newQuantityInBaseUnit;
-
-      double totalQuantityInExistingUnit = existingIngredient.getUnit()
-          .fromBaseUnit(totalQuantityInBaseUnit);
-
-      existingIngredient.setQuantity(totalQuantityInExistingUnit);
+    Map<Integer, String> failures = new LinkedHashMap<>();
+    ReentrantLock[] held = lockAll(ids);
+    try {
+      for (int i = 0; i < ingredients.size(); i++) {
+        try {
+          mergeIngredient(ids.get(i), ingredients.get(i));
+        } catch (IllegalArgumentException e) {
+          failures.put(i, e.getMessage());
+        }
+      }
+    } finally {
+      unlockAll(held);
+    }
+    return failures;
+  }
 
-      if (ingredient.getBestBeforeDate().isBefore(existingIngredient.getBestBeforeDate())) {
-        existingIngredient.setBestBeforeDate(ingredient.getBestBeforeDate());
+  /**
+   * Merges an ingredient into the inventory. Must be called while holding the lock for the id.
+   *
+   * @param id         the dictionary id of the ingredient
+   * @param ingredient the ingredient to merge
+   * @throws IllegalArgumentException if the units are incompatible with the stored ingredient
+   */
+  private void mergeIngredient(int id, Ingredient ingredient) {
+    String key = IngredientDictionary.nameOf(id);
+    Ingredient existingIngredient = findIngredientById(id);
+    if (existingIngredient != null) {
+      if (!existingIngredient.getUnit().isCompatibleWith(ingredient.getUnit())) {
+        throw new IllegalArgumentException(
+            "Units are incompatible for ingredient: " + ingredient.getName());
       }
+      notifyAdded(ingredient);
 
-      existingIngredient.setPricePerUnit(
-          (existingIngredient.getPricePerUnit() + ingredient.getPricePerUnit()) / 2
-      );
+      LocalDate previousDate = existingIngredient.getBestBeforeDate();
+      long previousValue = microValue(existingIngredient);
+      existingIngredient.addLotsOf(ingredient);
+      reindexExpiry(key, existingIngredient, previousDate);
+      addValue(existingIngredient, microValue(existingIngredient) - previousValue);
 
     } else {
+      notifyAdded(ingredient);
       inventory.put(key, ingredient);
+      expiryIndex.put(new ExpiryKey(ingredient.getBestBeforeDate(), key), ingredient);
+      publish(id, ingredient);
+      addValue(ingredient, microValue(ingredient));
     }
   }
 
@@ -84,37 +229,257 @@ public class FoodInventory {
     if (unit == null) {
       throw new IllegalArgumentException("Unit cannot be null.");
     }
+    return removeMicroQuantity(name, unit.toMicroBaseUnits(quantity), unit);
+  }
 
-    String key = name.toLowerCase();
-    if (!inventory.containsKey(key)) {
+  /**
+   * Removes a quantity already in fixed-point millionths of the base unit, as reported to
+   * {@link InventoryListener#quantityRemoved(String, long, Unit)}. Used to replay journaled
+   * deductions without a round trip through floating point.
+   *
+   * @param name         the name of the ingredient; cannot be null or empty
+   * @param baseQuantity the quantity to remove in millionths of the base unit; must be positive
+   * @param unit         a unit compatible with the stored ingredient; cannot be null
+   * @return true if the quantity was removed, false if the ingredient was not found
+   * @throws IllegalArgumentException if any parameter is invalid, units are incompatible, or if the
+   *                                  quantity to remove exceeds the available quantity
+   */
+  public boolean removeBaseQuantity(String name, long baseQuantity, Unit unit) {
+    validateName(name);
+    if (baseQuantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be positive.");
+    }
+    if (unit == null) {
+      throw new IllegalArgumentException("Unit cannot be null.");
+    }
+    return removeMicroQuantity(name, baseQuantity, unit);
+  }
+
+  /**
+   * Looks up and locks an ingredient, then deducts a validated quantity from it.
+   *
+   * @param name                 the name of the ingredient
+   * @param baseQuantityToRemove the quantity to remove in millionths of the base unit
+   * @param unit                 the unit of the quantity to remove
+   * @return true if the quantity was removed, false if the ingredient was not found
+   * @throws IllegalArgumentException if units are incompatible or the quantity is insufficient
+   */
+  private boolean removeMicroQuantity(String name, long baseQuantityToRemove, Unit unit) {
+    int id = IngredientDictionary.lookup(name);
+    if (id < 0) {
       return false;
     }
+    ReentrantLock lock = lockFor(id);
+    lock.lock();
+    try {
+      return deductQuantity(id, name, baseQuantityToRemove, unit);
+    } finally {
+      lock.unlock();
+    }
+  }
 
-    Ingredient ingredient = inventory.get(key);
+  /**
+   * Deducts a quantity from a stored ingredient, removing it when nothing is left. Must be called
+   * while holding the lock for the id.
+   *
+   * @param id                   the dictionary id of the ingredient
+   * @param name                 the name as given by the caller, used in error messages
+   * @param baseQuantityToRemove the quantity to remove in millionths of the base unit
+   * @param unit                 the unit of the quantity to remove
+   * @return true if the quantity was removed, false if the ingredient was not found
+   * @throws IllegalArgumentException if units are incompatible or the quantity is insufficient
+   */
+  private boolean deductQuantity(int id, String name, long baseQuantityToRemove, Unit unit) {
+    Ingredient ingredient = findIngredientById(id);
+    if (ingredient == null) {
+      return false;
+    }
 
     if (!ingredient.getUnit().isCompatibleWith(unit)) {
       throw new IllegalArgumentException("Units are incompatible for ingredient: " + name);
     }
 
-    double currentQuantityInBaseUnit = ingredient.getUnit().toBaseUnit(ingredient.getQuantity());
-    double quantityToRemoveInBaseUnit = unit.toBaseUnit(quantity);
+    long currentBaseQuantity = ingredient.getBaseQuantity();
 
-    if (quantityToRemoveInBaseUnit > currentQuantityInBaseUnit) {
+    if (baseQuantityToRemove > currentBaseQuantity) {
       throw new IllegalArgumentException(
           "Insufficient quantity of " + name + " to remove the requested amount."
       );
-    } else if (quantityToRemoveInBaseUnit == currentQuantityInBaseUnit) {
+    }
+    notifyRemoved(ingredient.getName(), baseQuantityToRemove, unit);
+    deductBaseQuantity(id, ingredient, baseQuantityToRemove);
+    return true;
+  }
+
+  /**
+   * Deducts an available base quantity from a stored ingredient, removing the ingredient when
+   * nothing is left. Must be called while holding the lock for the id.
+   *
+   * @param id                   the dictionary id of the ingredient
+   * @param ingredient           the stored ingredient
+   * @param baseQuantityToRemove the quantity to remove; at most the stored quantity
+   */
+  private void deductBaseQuantity(int id, Ingredient ingredient, long baseQuantityToRemove) {
+    long remaining = ingredient.getBaseQuantity() - baseQuantityToRemove;
+    if (remaining == 0) {
+      String key = IngredientDictionary.nameOf(id);
       inventory.remove(key);
+      expiryIndex.remove(new ExpiryKey(ingredient.getBestBeforeDate(), key));
+      publish(id, null);
+      addValue(ingredient, -microValue(ingredient));
     } else {
-      double newQuantityInBaseUnit = currentQuantityInBaseUnit - quantityToRemoveInBaseUnit;
-      double newQuantityInExistingUnit = ingredient.getUnit().fromBaseUnit(newQuantityInBaseUnit);
-      ingredient.setQuantity(newQuantityInExistingUnit);
+      LocalDate previousDate = ingredient.getBestBeforeDate();
+      long previousValue = microValue(ingredient);
+      ingredient.consume(baseQuantityToRemove);
+      reindexExpiry(IngredientDictionary.nameOf(id), ingredient, previousDate);
+      addValue(ingredient, microValue(ingredient) - previousValue);
     }
-    return true;
   }
 
   /**
-   * Finds an ingredient by name.
+   * Gets the value of an ingredient in fixed-point millionths of a krone. Totals are kept as sums
+   * of these rounded values, so adding and later subtracting an ingredient cancels exactly.
+   *
+   * @param ingredient the ingredient
+   * @return the value in millionths of a krone
+   */
+  private static long microValue(Ingredient ingredient) {
+    return Math.round(ingredient.getValue() * MICROS_PER_KRONE);
+  }
+
+  /**
+   * Adjusts the running value totals by a change in the value of an ingredient.
+   *
+   * @param ingredient the ingredient whose value changed
+   * @param delta      the change in millionths of a krone
+   */
+  private void addValue(Ingredient ingredient, long delta) {
+    if (delta != 0) {
+      totalValue.addAndGet(delta);
+      valueByUnitType.addAndGet(ingredient.getUnit().getUnitType().ordinal(), delta);
+    }
+  }
+
+  /**
+   * Moves an ingredient in the expiry index after its earliest lot changed.
+   *
+   * @param key          the name key of the ingredient
+   * @param ingredient   the stored ingredient
+   * @param previousDate the best-before date the ingredient was indexed under
+   */
+  private void reindexExpiry(String key, Ingredient ingredient, LocalDate previousDate) {
+    if (!ingredient.getBestBeforeDate().equals(previousDate)) {
+      expiryIndex.remove(new ExpiryKey(previousDate, key));
+      expiryIndex.put(new ExpiryKey(ingredient.getBestBeforeDate(), key), ingredient);
+    }
+  }
+
+  /**
+   * Cooks a recipe: deducts every ingredient requirement, scaled to the given number of servings,
+   * in one atomic step.
+   *
+   * @param recipe   the recipe to cook; cannot be null
+   * @param servings the number of servings to cook; must be positive
+   * @return true if all requirements were deducted, false if any ingredient was missing,
+   *         insufficient or in an incompatible unit, in which case nothing was deducted
+   * @throws IllegalArgumentException if the recipe is null or servings is not positive
+   */
+  public boolean consumeRecipe(Recipe recipe, int servings) {
+    if (recipe == null) {
+      throw new IllegalArgumentException("Recipe cannot be null.");
+    }
+    return consumeRecipes(Map.of(recipe, servings));
+  }
+
+  /**
+   * Cooks several recipes at once with all-or-nothing semantics.
+   * <p>
+   * The requirements of all recipes, each scaled to its number of servings, are summed per
+   * ingredient. The locks for those ingredients are then taken together, everything is validated,
+   * and only if every ingredient suffices is anything deducted. Each ingredient is looked up once
+   * regardless of how many recipes need it.
+   * </p>
+   *
+   * @param servingsByRecipe the recipes to cook, mapped to the number of servings of each; cannot
+   *                         be null
+   * @return true if all requirements were deducted, false if any ingredient was missing,
+   *         insufficient or in an incompatible unit, in which case nothing was deducted; a
+   *         requirement too large to represent counts as insufficient
+   * @throws IllegalArgumentException if the map is null, contains a null recipe, or a number of
+   *                                  servings that is not positive
+   */
+  public boolean consumeRecipes(Map<Recipe, Integer> servingsByRecipe) {
+    if (servingsByRecipe == null) {
+      throw new IllegalArgumentException("Recipes cannot be null.");
+    }
+
+    Map<Integer, Demand> demands = new TreeMap<>();
+    for (Map.Entry<Recipe, Integer> entry : servingsByRecipe.entrySet()) {
+      Recipe recipe = entry.getKey();
+      Integer servings = entry.getValue();
+      if (recipe == null) {
+        throw new IllegalArgumentException("Recipe cannot be null.");
+      }
+      if (servings == null || servings <= 0) {
+        throw new IllegalArgumentException("Servings must be positive.");
+      }
+      for (int i = 0; i < recipe.getRequirementCount(); i++) {
+        int id = recipe.getIngredientIdAt(i);
+        Unit.UnitType unitType = recipe.getUnitAt(i).getUnitType();
+        Demand existing = demands.get(id);
+        if (existing != null && existing.unitType() != unitType) {
+          return false;
+        }
+        long needed;
+        try {
+          needed = Math.ceilDiv(
+              Math.multiplyExact(recipe.getBaseQuantityAt(i), (long) servings),
+              recipe.getServings());
+          if (existing != null) {
+            needed = Math.addExact(existing.baseQuantity(), needed);
+          }
+        } catch (ArithmeticException e) {
+          // More than a stored quantity can ever hold, so it cannot be in stock
+          return false;
+        }
+        demands.put(id, new Demand(unitType, needed));
+      }
+    }
+
+    ReentrantLock[] held = lockAll(demands.keySet());
+    try {
+      for (Map.Entry<Integer, Demand> demand : demands.entrySet()) {
+        Ingredient ingredient = findIngredientById(demand.getKey());
+        if (ingredient == null
+            || ingredient.getUnit().getUnitType() != demand.getValue().unitType()
+            || ingredient.getBaseQuantity() < demand.getValue().baseQuantity()) {
+          return false;
+        }
+      }
+      if (!listeners.isEmpty()) {
+        List<InventoryListener.Removal> removals = new ArrayList<>(demands.size());
+        for (Map.Entry<Integer, Demand> demand : demands.entrySet()) {
+          Ingredient ingredient = findIngredientById(demand.getKey());
+          removals.add(new InventoryListener.Removal(ingredient.getName(),
+              demand.getValue().baseQuantity(), ingredient.getUnit()));
+        }
+        for (InventoryListener listener : listeners) {
+          listener.quantitiesRemoved(removals);
+        }
+      }
+      for (Map.Entry<Integer, Demand> demand : demands.entrySet()) {
+        deductBaseQuantity(demand.getKey(), findIngredientById(demand.getKey()),
+            demand.getValue().baseQuantity());
+      }
+      return true;
+    } finally {
+      unlockAll(held);
+    }
+  }
+
+  /**
+   * Finds an ingredient by name. The name is matched case-insensitively through the
+   * {@link IngredientDictionary} and the lookup does not allocate.
    *
    * @param name the name of the ingredient; cannot be null or empty
    * @return the ingredient if found, or null if not found
@@ -122,23 +487,148 @@ public class FoodInventory {
    */
   public Ingredient findIngredientByName(String name) {
     validateName(name);
-    return inventory.get(name.toLowerCase());
+    int id = IngredientDictionary.lookup(name);
+    return id < 0 ? null : findIngredientById(id);
+  }
+
+  /**
+   * Finds an ingredient by its dictionary id.
+   *
+   * @param id the dictionary id of the ingredient
+   * @return the ingredient if found, or null if not found
+   */
+  public Ingredient findIngredientById(int id) {
+    AtomicReferenceArray<Ingredient> table = byId;
+    return id >= 0 && id < table.length() ? table.get(id) : null;
+  }
+
+  /**
+   * Checks whether every ingredient the recipe requires is in stock, in any quantity and unit.
+   * <p>
+   * The check compares the recipe's ingredient bitset with the inventory's presence bitset one
+   * 64-bit word at a time and never looks at an ingredient. A recipe that fails it cannot be made;
+   * one that passes still needs {@link Recipe#canBeMadeFromInventory(FoodInventory)} to compare
+   * quantities.
+   * </p>
+   *
+   * @param recipe the recipe to check; cannot be null
+   * @return true if all required ingredients are present
+   * @throws IllegalArgumentException if the recipe is null
+   */
+  public boolean containsAllIngredientsOf(Recipe recipe) {
+    if (recipe == null) {
+      throw new IllegalArgumentException("Recipe cannot be null.");
+    }
+    AtomicLongArray words = presence;
+    Recipe.IngredientMask mask = recipe.getIngredientMask();
+    int[] wordIndexes = mask.wordIndexes();
+    long[] bits = mask.bits();
+    for (int i = 0; i < wordIndexes.length; i++) {
+      int word = wordIndexes[i];
+      if (word >= words.length() || (words.get(word) & bits[i]) != bits[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Takes a consistent copy of the stocked quantities, indexed by ingredient id. Mutations are
+   * blocked while the copy is taken.
+   *
+   * @return the stock levels
+   */
+  public StockLevels getStockLevels() {
+    ReentrantLock[] held = lockAllStripes();
+    try {
+      AtomicReferenceArray<Ingredient> table = byId;
+      long[] baseQuantities = new long[table.length()];
+      Unit.UnitType[] unitTypes = new Unit.UnitType[table.length()];
+      for (int id = 0; id < table.length(); id++) {
+        Ingredient ingredient = table.get(id);
+        if (ingredient != null) {
+          baseQuantities[id] = ingredient.getBaseQuantity();
+          unitTypes[id] = ingredient.getUnit().getUnitType();
+        }
+      }
+      return new StockLevels(baseQuantities, unitTypes);
+    } finally {
+      unlockAll(held);
+    }
+  }
+
+  /**
+   * Gets the total value of the stock, the sum of quantity times price over every lot. This is a
+   * constant-time read of a running total.
+   *
+   * @return the total value in NOK
+   */
+  public double getTotalValue() {
+    return totalValue.get() / MICROS_PER_KRONE;
+  }
+
+  /**
+   * Gets the value of the stock measured in units of one type, for example everything counted by
+   * mass. This is a constant-time read of a running total.
+   *
+   * @param unitType the type of unit; cannot be null
+   * @return the value in NOK
+   * @throws IllegalArgumentException if the unit type is null
+   */
+  public double getValue(Unit.UnitType unitType) {
+    if (unitType == null) {
+      throw new IllegalArgumentException("Unit type cannot be null.");
+    }
+    return valueByUnitType.get(unitType.ordinal()) / MICROS_PER_KRONE;
   }
 
   /**
    * Returns a list of all ingredients sorted by name.
+   * <p>
+   * The list is a copy of the name-ordered map and is not affected by later changes to the
+   * inventory.
+   * </p>
    *
    * @return a list of ingredients
    */
   public List<Ingredient> getAllIngredientsSortedByName() {
-    return inventory.values().stream()
-        .sorted(Comparator.comparing(Ingredient::getName, String.CASE_INSENSITIVE_ORDER))
-        .collect(Collectors.toList());
+    return new ArrayList<>(inventory.values());
+  }
+
+  /**
+   * Returns a live, unmodifiable view of all ingredients sorted by name.
+   * <p>
+   * Nothing is copied; iterating the view walks the inventory directly. Iteration is weakly
+   * consistent: it never fails because of concurrent changes, and reflects some or all of the
+   * changes made while it is in progress.
+   * </p>
+   *
+   * @return a view of the ingredients in name order
+   */
+  public Collection<Ingredient> viewIngredientsSortedByName() {
+    return Collections.unmodifiableCollection(inventory.values());
   }
 
 
+  /**
+   * Returns one page of ingredients in name order. Only the requested page is copied; pass the
+   * cursor of each page to get the next one.
+   *
+   * @param cursor   the cursor of the previous page, or null for the first page
+   * @param pageSize the maximum number of ingredients on the page; must be positive
+   * @return the page
+   * @throws IllegalArgumentException if the page size is not positive or the cursor is invalid
+   */
+  public Page<Ingredient> getIngredientsPage(String cursor, int pageSize) {
+    return Page.of(inventory, cursor, pageSize);
+  }
+
   /**
    * Returns a list of ingredients that expire before the specified date.
+   * <p>
+   * The result is read from the expiry index in best-before order, so only the matching
+   * ingredients are visited. Ingredients with the same date are ordered by name.
+   * </p>
    *
    * @param date the date to compare; cannot be null
    * @return a list of ingredients expiring before the specified date
@@ -149,13 +639,195 @@ public class FoodInventory {
       throw new IllegalArgumentException("Date cannot be null.");
     }
 
-    return inventory.values().stream()
-        .filter(ingredient -> ingredient.getBestBeforeDate().isBefore(date))
-        .sorted(Comparator.comparing(Ingredient::getBestBeforeDate))
-        .collect(Collectors.toList());
+    return new ArrayList<>(expiryIndex.headMap(new ExpiryKey(date, ""), false).values());
   }
 
 
+  /**
+   * Returns a live, unmodifiable view of the ingredients that expire before the specified date, in
+   * best-before order and then by name. Like {@link #viewIngredientsSortedByName()}, nothing is
+   * copied and iteration is weakly consistent.
+   *
+   * @param date the date to compare; cannot be null
+   * @return a view of the ingredients expiring before the specified date
+   * @throws IllegalArgumentException if the date is null
+   */
+  public Collection<Ingredient> viewIngredientsExpiringBefore(LocalDate date) {
+    if (date == null) {
+      throw new IllegalArgumentException("Date cannot be null.");
+    }
+
+    return Collections.unmodifiableCollection(
+        expiryIndex.headMap(new ExpiryKey(date, ""), false).values());
+  }
+
+
+  /**
+   * Takes a consistent copy of the inventory.
+   * <p>
+   * All mutations are blocked while the copy is taken, and {@code atomically} runs at the same
+   * instant, so no mutation happens between the copy and the action. This lets a journal switch to
+   * a new log segment exactly at the point the copy describes.
+   * </p>
+   *
+   * @param atomically an action to run while mutations are blocked; cannot be null
+   * @return copies of all ingredients, in name order
+   * @throws IllegalArgumentException if the action is null
+   */
+  public List<Ingredient> snapshot(Runnable atomically) {
+    if (atomically == null) {
+      throw new IllegalArgumentException("Action cannot be null.");
+    }
+    ReentrantLock[] held = lockAllStripes();
+    try {
+      List<Ingredient> copies = new ArrayList<>(inventory.size());
+      for (Ingredient ingredient : inventory.values()) {
+        for (Lot lot : ingredient.getLots()) {
+          copies.add(Ingredient.restore(ingredient.getName(), lot.getBaseQuantity(),
+              ingredient.getUnit(), lot.getBestBeforeDate(), lot.getPricePerUnit()));
+        }
+      }
+      atomically.run();
+      return copies;
+    } finally {
+      unlockAll(held);
+    }
+  }
+
+  /**
+   * Tells the listeners that an ingredient is about to be added. An ingredient made of several lots
+   * is reported as one event carrying all of them, so that a listener can record the add as a unit.
+   *
+   * @param ingredient the ingredient being added
+   */
+  private void notifyAdded(Ingredient ingredient) {
+    for (InventoryListener listener : listeners) {
+      listener.ingredientAdded(ingredient);
+    }
+  }
+
+  /**
+   * Tells the listeners that a quantity is about to be deducted.
+   *
+   * @param name         the name of the ingredient
+   * @param baseQuantity the quantity in millionths of the base unit
+   * @param unit         a unit compatible with the stored ingredient
+   */
+  private void notifyRemoved(String name, long baseQuantity, Unit unit) {
+    for (InventoryListener listener : listeners) {
+      listener.quantityRemoved(name, baseQuantity, unit);
+    }
+  }
+
+  /**
+   * Stores or clears the entry for an id in the id table and its bit in the presence bitset,
+   * growing both when needed. Writers are serialized so that an entry written during a resize is
+   * never lost; readers never block.
+   *
+   * @param id         the dictionary id of the ingredient
+   * @param ingredient the stored ingredient, or null to clear the entry
+   */
+  private void publish(int id, Ingredient ingredient) {
+    synchronized (byIdLock) {
+      AtomicReferenceArray<Ingredient> table = byId;
+      if (id >= table.length()) {
+        AtomicReferenceArray<Ingredient> grown =
+            new AtomicReferenceArray<>(Math.max(id + 1, table.length() * 2));
+        for (int i = 0; i < table.length(); i++) {
+          grown.set(i, table.get(i));
+        }
+        byId = grown;
+        table = grown;
+      }
+      table.set(id, ingredient);
+
+      AtomicLongArray words = presence;
+      int word = id / Long.SIZE;
+      if (word >= words.length()) {
+        AtomicLongArray grown = new AtomicLongArray(table.length() / Long.SIZE + 1);
+        for (int i = 0; i < words.length(); i++) {
+          grown.set(i, words.get(i));
+        }
+        presence = grown;
+        words = grown;
+      }
+      long bit = 1L << id;
+      words.set(word, ingredient == null ? words.get(word) & ~bit : words.get(word) | bit);
+    }
+  }
+
+  /**
+   * Returns the lock guarding mutations of the given ingredient.
+   *
+   * @param id the dictionary id of the ingredient
+   * @return the lock stripe for the id
+   */
+  private ReentrantLock lockFor(int id) {
+    return locks[stripeOf(id)];
+  }
+
+  /**
+   * Returns the index of the lock stripe for the given ingredient. Ids are dense, so consecutive
+   * ids land on different stripes.
+   *
+   * @param id the dictionary id of the ingredient
+   * @return the stripe index
+   */
+  private int stripeOf(int id) {
+    return id & (LOCK_STRIPES - 1);
+  }
+
+  /**
+   * Takes the locks for all given ingredients in ascending stripe order, so that concurrent
+   * multi-ingredient operations cannot deadlock.
+   *
+   * @param ids the dictionary ids of the ingredients
+   * @return the locks taken, to be passed to {@link #unlockAll(ReentrantLock[])}
+   */
+  private ReentrantLock[] lockAll(Iterable<Integer> ids) {
+    boolean[] needed = new boolean[LOCK_STRIPES];
+    int count = 0;
+    for (int id : ids) {
+      int stripe = stripeOf(id);
+      if (!needed[stripe]) {
+        needed[stripe] = true;
+        count++;
+      }
+    }
+    ReentrantLock[] held = new ReentrantLock[count];
+    int taken = 0;
+    for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+      if (needed[stripe]) {
+        locks[stripe].lock();
+        held[taken++] = locks[stripe];
+      }
+    }
+    return held;
+  }
+
+  /**
+   * Takes every lock stripe in ascending order, blocking all mutations.
+   *
+   * @return the locks taken, to be passed to {@link #unlockAll(ReentrantLock[])}
+   */
+  private ReentrantLock[] lockAllStripes() {
+    for (ReentrantLock lock : locks) {
+      lock.lock();
+    }
+    return locks.clone();
+  }
+
+  /**
+   * Releases locks taken by {@link #lockAll(Iterable)}, in reverse order.
+   *
+   * @param held the locks to release
+   */
+  private void unlockAll(ReentrantLock[] held) {
+    for (int i = held.length - 1; i >= 0; i--) {
+      held[i].unlock();
+    }
+  }
+
   /**
    * Validates that the name is not null or empty.
    *
@@ -163,7 +835,7 @@ public class FoodInventory {
    * @throws IllegalArgumentException if the name is null or empty
    */
   private void validateName(String name) {
-    if (name == null || name.trim().isEmpty()) {
+    if (name == null || NameTable.isBlank(name)) {
       throw new IllegalArgumentException("Ingredient name cannot be null or empty.");
     }
   }
@@ -179,4 +851,28 @@ public class FoodInventory {
       throw new IllegalArgumentException("Quantity must be positive.");
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Total base quantity of one ingredient needed by a cooking operation.
+   *
+   * @param unitType     the unit type the requirement is expressed in
+   * @param baseQuantity the needed quantity in millionths of the base unit
+   */
+  private record Demand(Unit.UnitType unitType, long baseQuantity) {
+  }
+
+  /**
+   * Key of the expiry index: orders ingredients by best-before date, then by normalized name.
+   *
+   * @param date the best-before date of the ingredient
+   * @param key  the normalized name of the ingredient
+   */
+  private record ExpiryKey(LocalDate date, String key) implements Comparable<ExpiryKey> {
+
+    @Override
+    public int compareTo(ExpiryKey other) {
+      int byDate = date.compareTo(other.date);
+      return byDate != 0 ? byDate : key.compareTo(other.key);
+    }
+  }
+}
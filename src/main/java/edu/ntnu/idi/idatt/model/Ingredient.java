@@ -1,18 +1,55 @@
 package edu.ntnu.idi.idatt.model;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 
 /**
  * Represents an ingredient with a name, quantity, unit, best-before date, and price per unit.
+ * <p>
+ * The quantity is stored in fixed-point millionths of the base unit (see {@link Unit}), so merges
+ * and deductions in a {@link FoodInventory} are exact integer arithmetic.
+ * </p>
+ *
+ * <p>
+ * The mutable state is volatile so that threads reading an ingredient stored in a shared
+ * {@link FoodInventory} see the latest values written by the inventory.
+ * </p>
+ *
+ * <p>
+ * Each ingredient knows the {@link IngredientDictionary} id of its name, which is what inventories
+ * and recipes key on.
+ * </p>
+ *
+ * <p>
+ * Stock is held as a set of {@link Lot}s, each with its own quantity, best-before date and price. A
+ * new ingredient is a single lot; when a {@link FoodInventory} merges deliveries of the same
+ * ingredient it adds their lots, and deductions consume the lots first-expired-first-out. The lots
+ * are kept in a heap ordered by best-before date, so adding a lot and consuming one cost
+ * O(log lots). A delivery with the same best-before date and price as a lot already held is added
+ * to that lot, so topping up the same stock does not grow the number of lots. The quantity is the
+ * sum of the lots, the best-before date is that of the earliest lot, and the price per unit is the
+ * average of the lot prices weighted by quantity. The public setters describe the ingredient as a
+ * whole, so calling one collapses the lots into a single lot with the resulting quantity, date and
+ * price.
+ * </p>
  */
 public class Ingredient {
 
   private String name;
-  private double quantity;
+  private int id;
+  private volatile long baseQuantity;
   private Unit unit;
-  private LocalDate bestBeforeDate;
-  private double pricePerUnit;
+  private volatile LocalDate bestBeforeDate;
+  private volatile double pricePerUnit;
+  private final PriorityQueue<Lot> lots = new PriorityQueue<>(Lot.FIRST_EXPIRED_FIRST);
+  private final Map<LotKey, Lot> lotsByDateAndPrice = new HashMap<>();
+  private double value;
+  private long nextSequence;
 
   /**
    * Constructs an Ingredient with the specified name, quantity, unit, best-before date, and price
@@ -28,10 +65,52 @@ public class Ingredient {
   public Ingredient(String name, double quantity, Unit unit, LocalDate bestBeforeDate,
       double pricePerUnit) {
     this.name = validateName(name);
-    this.quantity = validatePositiveValue(quantity, "Quantity must be positive.");
+    this.id = IngredientDictionary.idOf(this.name);
+    validatePositiveValue(quantity, "Quantity must be positive.");
     this.unit = validateUnit(unit);
+    this.baseQuantity = validateBaseQuantity(unit.toMicroBaseUnits(quantity));
     this.bestBeforeDate = validateBestBeforeDate(bestBeforeDate);
     this.pricePerUnit = validatePositiveValue(pricePerUnit, "Price per unit must be positive.");
+    collapseLots();
+  }
+
+  /**
+   * Constructs an Ingredient restored from storage, where the best-before date may lie in the past.
+   *
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  private Ingredient(String name, Unit unit, long baseQuantity, LocalDate bestBeforeDate,
+      double pricePerUnit) {
+    this.name = validateName(name);
+    this.id = IngredientDictionary.idOf(this.name);
+    this.unit = validateUnit(unit);
+    this.baseQuantity = validateBaseQuantity(baseQuantity);
+    if (bestBeforeDate == null) {
+      throw new IllegalArgumentException("Best-before date cannot be null.");
+    }
+    this.bestBeforeDate = bestBeforeDate;
+    this.pricePerUnit = validatePositiveValue(pricePerUnit, "Price per unit must be positive.");
+    collapseLots();
+  }
+
+  /**
+   * Recreates an ingredient from persisted state.
+   * <p>
+   * Unlike the public constructor this accepts a best-before date in the past, since stock that was
+   * valid when it was recorded may have expired since.
+   * </p>
+   *
+   * @param name           the name of the ingredient; cannot be null or empty
+   * @param baseQuantity   the quantity in millionths of the base unit; must be positive
+   * @param unit           the unit of measurement; cannot be null
+   * @param bestBeforeDate the best-before date; cannot be null
+   * @param pricePerUnit   the price per unit; must be positive
+   * @return the restored ingredient
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  public static Ingredient restore(String name, long baseQuantity, Unit unit,
+      LocalDate bestBeforeDate, double pricePerUnit) {
+    return new Ingredient(name, unit, baseQuantity, bestBeforeDate, pricePerUnit);
   }
 
   // Getters and setters with validation
@@ -42,38 +121,186 @@ public class Ingredient {
 
   public void setName(String name) {
     this.name = validateName(name);
+    this.id = IngredientDictionary.idOf(this.name);
+  }
+
+  /**
+   * Gets the dictionary id of the ingredient's name.
+   *
+   * @return the ingredient id
+   */
+  public int getId() {
+    return id;
   }
 
   public double getQuantity() {
-    return quantity;
+    return unit.fromMicroBaseUnits(baseQuantity);
+  }
+
+  public synchronized void setQuantity(double quantity) {
+    validatePositiveValue(quantity, "Quantity must be positive.");
+    this.baseQuantity = validateBaseQuantity(unit.toMicroBaseUnits(quantity));
+    collapseLots();
   }
 
-  public void setQuantity(double quantity) {
-    this.quantity = validatePositiveValue(quantity, "Quantity must be positive.");
+  /**
+   * Gets the quantity in fixed-point millionths of the base unit.
+   *
+   * @return the quantity in millionths of the base unit
+   */
+  public long getBaseQuantity() {
+    return baseQuantity;
   }
 
   public Unit getUnit() {
     return unit;
   }
 
-  public void setUnit(Unit unit) {
-    this.unit = validateUnit(unit);
+  /**
+   * Sets the unit, keeping the quantity's numeric value in the new unit.
+   *
+   * @param unit the new unit; cannot be null
+   * @throws IllegalArgumentException if the unit is null
+   */
+  public synchronized void setUnit(Unit unit) {
+    double quantity = getQuantity();
+    Unit validatedUnit = validateUnit(unit);
+    this.baseQuantity = validateBaseQuantity(validatedUnit.toMicroBaseUnits(quantity));
+    this.unit = validatedUnit;
+    collapseLots();
   }
 
   public LocalDate getBestBeforeDate() {
     return bestBeforeDate;
   }
 
-  public void setBestBeforeDate(LocalDate bestBeforeDate) {
+  public synchronized void setBestBeforeDate(LocalDate bestBeforeDate) {
     this.bestBeforeDate = validateBestBeforeDate(bestBeforeDate);
+    collapseLots();
   }
 
   public double getPricePerUnit() {
     return pricePerUnit;
   }
 
-  public void setPricePerUnit(double pricePerUnit) {
+  public synchronized void setPricePerUnit(double pricePerUnit) {
     this.pricePerUnit = validatePositiveValue(pricePerUnit, "Price per unit must be positive.");
+    collapseLots();
+  }
+
+  /**
+   * Gets the value of the stock: the quantity of each lot times its price, summed over the lots.
+   *
+   * @return the value in NOK
+   */
+  public synchronized double getValue() {
+    return value;
+  }
+
+  // Lots
+
+  /**
+   * Returns copies of the lots, first-expired first. Quantities and prices are in this
+   * ingredient's unit.
+   *
+   * @return the lots in the order they would be consumed
+   */
+  public synchronized List<Lot> getLots() {
+    List<Lot> copies = new ArrayList<>(lots.size());
+    for (Lot lot : lots) {
+      copies.add(lot.copy());
+    }
+    copies.sort(Lot.FIRST_EXPIRED_FIRST);
+    return copies;
+  }
+
+  /**
+   * Gets the number of lots.
+   *
+   * @return the number of lots
+   */
+  public synchronized int getLotCount() {
+    return lots.size();
+  }
+
+  /**
+   * Adds the lots of another ingredient of the same name, converting their prices to this
+   * ingredient's unit. The other ingredient is not changed.
+   *
+   * @param other an ingredient in a compatible unit
+   */
+  synchronized void addLotsOf(Ingredient other) {
+    // Price per this unit = price per other unit * number of other units in one of this unit
+    double priceFactor = other.unit == unit ? 1 : other.unit.fromBaseUnit(unit.toBaseUnit(1));
+    for (Lot lot : other.getLots()) {
+      double price = lot.getPricePerUnit() * priceFactor;
+      LotKey lotKey = new LotKey(lot.getBestBeforeDate(), price);
+      Lot sameLot = lotsByDateAndPrice.get(lotKey);
+      if (sameLot != null) {
+        // The heap is ordered by date and sequence only, so growing a lot keeps it in place
+        sameLot.setBaseQuantity(sameLot.getBaseQuantity() + lot.getBaseQuantity());
+      } else {
+        Lot added = new Lot(nextSequence++, lot.getBaseQuantity(), lot.getBestBeforeDate(), price);
+        lots.add(added);
+        lotsByDateAndPrice.put(lotKey, added);
+      }
+      baseQuantity += lot.getBaseQuantity();
+      value += price * unit.fromMicroBaseUnits(lot.getBaseQuantity());
+    }
+    refreshFromLots();
+  }
+
+  /**
+   * Consumes a quantity first-expired-first-out.
+   *
+   * @param baseQuantityToConsume the quantity in millionths of the base unit; positive and less
+   *                              than the quantity of the ingredient
+   */
+  synchronized void consume(long baseQuantityToConsume) {
+    long left = baseQuantityToConsume;
+    while (left > 0) {
+      Lot lot = lots.peek();
+      if (lot.getBaseQuantity() <= left) {
+        lots.poll();
+        lotsByDateAndPrice.remove(new LotKey(lot.getBestBeforeDate(), lot.getPricePerUnit()));
+        left -= lot.getBaseQuantity();
+        value -= lot.getPricePerUnit() * unit.fromMicroBaseUnits(lot.getBaseQuantity());
+      } else {
+        // The heap is ordered by date and sequence only, so shrinking a lot keeps it in place
+        lot.setBaseQuantity(lot.getBaseQuantity() - left);
+        value -= lot.getPricePerUnit() * unit.fromMicroBaseUnits(left);
+        left = 0;
+      }
+    }
+    baseQuantity -= baseQuantityToConsume;
+    refreshFromLots();
+  }
+
+  /**
+   * Replaces the lots with a single lot holding the current quantity, date and price.
+   */
+  private void collapseLots() {
+    lots.clear();
+    lotsByDateAndPrice.clear();
+    Lot lot = new Lot(nextSequence++, baseQuantity, bestBeforeDate, pricePerUnit);
+    lots.add(lot);
+    lotsByDateAndPrice.put(new LotKey(bestBeforeDate, pricePerUnit), lot);
+    value = pricePerUnit * unit.fromMicroBaseUnits(baseQuantity);
+  }
+
+  /**
+   * Derives the best-before date and price from the lots after they changed. With one lot left
+   * the running value is reset from it, so rounding errors do not build up.
+   */
+  private void refreshFromLots() {
+    Lot first = lots.peek();
+    bestBeforeDate = first.getBestBeforeDate();
+    if (lots.size() == 1) {
+      pricePerUnit = first.getPricePerUnit();
+      value = pricePerUnit * unit.fromMicroBaseUnits(baseQuantity);
+    } else {
+      pricePerUnit = value / unit.fromMicroBaseUnits(baseQuantity);
+    }
   }
 
   // Validation methods
@@ -92,6 +319,13 @@ public class Ingredient {
     return value;
   }
 
+  private long validateBaseQuantity(long baseQuantity) {
+    if (baseQuantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be positive.");
+    }
+    return baseQuantity;
+  }
+
   private Unit validateUnit(Unit unit) {
     if (unit == null) {
       throw new IllegalArgumentException("Unit cannot be null.");
@@ -132,6 +366,12 @@ public class Ingredient {
   @Override
   public String toString() {
     return String.format("%s: %.2f %s (Best before: %s, Price: %.2f NOK)",
-        name, quantity, unit.getAbbreviation(), bestBeforeDate, pricePerUnit);
+        name, getQuantity(), unit.getAbbreviation(), bestBeforeDate, pricePerUnit);
+  }
+
+  /**
+   * Identifies the lot that a delivery with the same best-before date and price is added to.
+   */
+  private record LotKey(LocalDate bestBeforeDate, double pricePerUnit) {
   }
 }
@@ -0,0 +1,110 @@
+package edu.ntnu.idi.idatt.model;
+
+import java.util.Arrays;
+
+/**
+ * Global dictionary that gives every distinct ingredient name a dense integer id.
+ * <p>
+ * Names are normalized by trimming and lower-casing, so "Milk", "milk " and "MILK" share an id.
+ * Ids start at 0 and are handed out in the order names are first seen, which lets the model keep
+ * ingredients in arrays indexed by id and join recipes against the inventory on integers instead
+ * of strings. Ids are never reused or removed for the life of the JVM; they are not stable across
+ * runs and must not be persisted.
+ * </p>
+ *
+ * <p>
+ * The dictionary is safe for use by multiple threads. Lookups never block and do not allocate:
+ * the name is hashed and compared case-insensitively in place (see {@link NameTable}).
+ * </p>
+ */
+public final class IngredientDictionary {
+
+  private static final NameTable<Integer> IDS = new NameTable<>();
+  private static volatile String[] names = new String[256];
+  private static volatile int size;
+
+  private IngredientDictionary() {
+  }
+
+  /**
+   * Returns the id of the given ingredient name, assigning a new id if the name has not been seen
+   * before.
+   *
+   * @param name the ingredient name; cannot be null or empty
+   * @return the id of the normalized name
+   * @throws IllegalArgumentException if the name is null or empty
+   */
+  public static int idOf(String name) {
+    validateName(name);
+    Integer id = IDS.get(name);
+    if (id != null) {
+      return id;
+    }
+    synchronized (IngredientDictionary.class) {
+      id = IDS.get(name);
+      if (id == null) {
+        id = size;
+        String[] table = names;
+        if (id == table.length) {
+          table = Arrays.copyOf(table, table.length * 2);
+        }
+        table[id] = NameTable.normalize(name);
+        names = table;
+        size++;
+        IDS.putIfAbsent(name, id);
+      }
+      return id;
+    }
+  }
+
+  /**
+   * Returns the id of the given ingredient name without assigning one. The lookup does not
+   * allocate.
+   *
+   * @param name the ingredient name; cannot be null or empty
+   * @return the id of the normalized name, or -1 if the name has never been seen
+   * @throws IllegalArgumentException if the name is null or empty
+   */
+  public static int lookup(CharSequence name) {
+    validateName(name);
+    Integer id = IDS.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the normalized name with the given id.
+   *
+   * @param id an id returned by {@link #idOf(String)}
+   * @return the normalized name
+   * @throws IllegalArgumentException if no name has the id
+   */
+  public static String nameOf(int id) {
+    String[] table = names;
+    String name = id >= 0 && id < table.length ? table[id] : null;
+    if (name == null) {
+      throw new IllegalArgumentException("Unknown ingredient id: " + id);
+    }
+    return name;
+  }
+
+  /**
+   * Returns the number of names in the dictionary, which is also one more than the highest id.
+   *
+   * @return the number of names
+   */
+  public static int size() {
+    return size;
+  }
+
+  /**
+   * Validates that the name is not null or blank.
+   *
+   * @param name the name to validate
+   * @throws IllegalArgumentException if the name is null or empty
+   */
+  private static void validateName(CharSequence name) {
+    if (name == null || NameTable.isBlank(name)) {
+      throw new IllegalArgumentException("Ingredient name cannot be null or empty.");
+    }
+  }
+}
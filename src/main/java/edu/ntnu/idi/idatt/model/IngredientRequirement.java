@@ -4,10 +4,20 @@ import java.util.Objects;
 
 /**
  * Represents the required quantity and unit of an ingredient in a recipe.
+ * <p>
+ * Like {@link Ingredient}, the quantity is stored in fixed-point millionths of the base unit, so
+ * comparing a requirement against stock is an integer comparison.
+ * </p>
+ *
+ * <p>
+ * Requirements that belong to a {@link Recipe} also carry the {@link IngredientDictionary} id of
+ * the ingredient they require; standalone requirements have the id -1.
+ * </p>
  */
 public class IngredientRequirement {
 
-  private final double quantity;
+  private final int ingredientId;
+  private final long baseQuantity;
   private final Unit unit;
 
   /**
@@ -18,8 +28,53 @@ public class IngredientRequirement {
    * @throws IllegalArgumentException if any parameter is invalid
    */
   public IngredientRequirement(double quantity, Unit unit) {
-    this.quantity = validateQuantity(quantity);
+    this(-1, quantity, unit);
+  }
+
+  /**
+   * Constructs an IngredientRequirement for the ingredient with the given dictionary id.
+   *
+   * @param ingredientId the dictionary id of the required ingredient
+   * @param quantity     the required quantity; must be positive
+   * @param unit         the unit of measurement; cannot be null
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  IngredientRequirement(int ingredientId, double quantity, Unit unit) {
+    this.ingredientId = ingredientId;
+    double validatedQuantity = validateQuantity(quantity);
     this.unit = validateUnit(unit);
+    this.baseQuantity = validateBaseQuantity(unit.toMicroBaseUnits(validatedQuantity));
+  }
+
+  /**
+   * Constructs an IngredientRequirement from a quantity already in millionths of the base unit.
+   */
+  private IngredientRequirement(int ingredientId, Unit unit, long baseQuantity) {
+    this.ingredientId = ingredientId;
+    this.unit = validateUnit(unit);
+    this.baseQuantity = validateBaseQuantity(baseQuantity);
+  }
+
+  /**
+   * Recreates a requirement from its compiled form in a {@link Recipe}.
+   *
+   * @param ingredientId the dictionary id of the required ingredient
+   * @param baseQuantity the required quantity in millionths of the base unit; must be positive
+   * @param unit         the unit of measurement; cannot be null
+   * @return the requirement
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  static IngredientRequirement ofBaseQuantity(int ingredientId, long baseQuantity, Unit unit) {
+    return new IngredientRequirement(ingredientId, unit, baseQuantity);
+  }
+
+  /**
+   * Gets the dictionary id of the required ingredient.
+   *
+   * @return the ingredient id, or -1 if the requirement is not part of a recipe
+   */
+  public int getIngredientId() {
+    return ingredientId;
   }
 
   /**
@@ -28,7 +83,16 @@ public class IngredientRequirement {
    * @return the required quantity
    */
   public double getQuantity() {
-    return quantity;
+    return unit.fromMicroBaseUnits(baseQuantity);
+  }
+
+  /**
+   * Gets the required quantity in fixed-point millionths of the base unit.
+   *
+   * @return the required quantity in millionths of the base unit
+   */
+  public long getBaseQuantity() {
+    return baseQuantity;
   }
 
   /**
@@ -54,6 +118,20 @@ public class IngredientRequirement {
     return quantity;
   }
 
+  /**
+   * Validates that the quantity is still positive after conversion to fixed point.
+   *
+   * @param baseQuantity the quantity in millionths of the base unit
+   * @return the validated quantity
+   * @throws IllegalArgumentException if the quantity is not positive
+   */
+  private long validateBaseQuantity(long baseQuantity) {
+    if (baseQuantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be positive.");
+    }
+    return baseQuantity;
+  }
+
   /**
    * Validates that the unit is not null.
    *
@@ -75,17 +153,17 @@ public class IngredientRequirement {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     IngredientRequirement that = (IngredientRequirement) o;
-    return Double.compare(that.quantity, quantity) == 0 &&
+    return baseQuantity == that.baseQuantity &&
         unit == that.unit;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(quantity, unit);
+    return Objects.hash(baseQuantity, unit);
   }
 
   @Override
   public String toString() {
-    return String.format("%.2f %s", quantity, unit.getAbbreviation());
+    return String.format("%.2f %s", getQuantity(), unit.getAbbreviation());
   }
 }
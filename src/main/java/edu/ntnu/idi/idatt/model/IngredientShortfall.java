@@ -0,0 +1,32 @@
+package edu.ntnu.idi.idatt.model;
+
+/**
+ * How much of one required ingredient is missing from the inventory.
+ *
+ * @param ingredientName       the normalized name of the ingredient
+ * @param missingBaseQuantity  the missing quantity in millionths of the base unit
+ * @param requiredBaseQuantity the required quantity in millionths of the base unit
+ * @param unit                 the unit the requirement is given in
+ */
+public record IngredientShortfall(String ingredientName, long missingBaseQuantity,
+                                  long requiredBaseQuantity, Unit unit) {
+
+  /**
+   * Returns the missing quantity in the unit of the requirement.
+   *
+   * @return the missing quantity
+   */
+  public double getMissingQuantity() {
+    return unit.fromMicroBaseUnits(missingBaseQuantity);
+  }
+
+  /**
+   * Returns the missing share of the requirement, from just above 0 to 1 when nothing usable is
+   * in stock.
+   *
+   * @return the missing quantity divided by the required quantity
+   */
+  public double getMissingFraction() {
+    return (double) missingBaseQuantity / requiredBaseQuantity;
+  }
+}
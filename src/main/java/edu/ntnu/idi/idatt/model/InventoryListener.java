@@ -0,0 +1,57 @@
+package edu.ntnu.idi.idatt.model;
+
+import java.util.List;
+
+/**
+ * Receives every mutation of a {@link FoodInventory}.
+ * <p>
+ * Callbacks run on the mutating thread while it holds the inventory's lock for the affected
+ * ingredient, after the mutation has been validated and before it is applied. A listener that
+ * throws therefore prevents the mutation, which lets a write-ahead journal guarantee that nothing
+ * is applied that was not first recorded. Applying the reported mutations in order to an inventory
+ * in the same starting state reproduces the same contents.
+ * </p>
+ */
+public interface InventoryListener {
+
+  /**
+   * Called before an ingredient is added to, or merged into, the inventory. The ingredient may hold
+   * several lots, see {@link Ingredient#getLots()}; they are added together or not at all.
+   *
+   * @param ingredient the ingredient as passed to {@link FoodInventory#addIngredient(Ingredient)}
+   */
+  void ingredientAdded(Ingredient ingredient);
+
+  /**
+   * Called before a quantity is deducted from an ingredient.
+   *
+   * @param name         the name of the ingredient
+   * @param baseQuantity the quantity deducted, in millionths of the base unit
+   * @param unit         a unit compatible with the stored ingredient
+   */
+  void quantityRemoved(String name, long baseQuantity, Unit unit);
+
+  /**
+   * Called before several quantities are deducted in one all-or-nothing step, such as cooking a
+   * recipe. Either every deduction is applied or none is, so a listener that records them should
+   * record them as one unit. By default each deduction is passed to
+   * {@link #quantityRemoved(String, long, Unit)} in turn.
+   *
+   * @param removals the deductions, in the order they are applied
+   */
+  default void quantitiesRemoved(List<Removal> removals) {
+    for (Removal removal : removals) {
+      quantityRemoved(removal.name(), removal.baseQuantity(), removal.unit());
+    }
+  }
+
+  /**
+   * One deduction of a grouped mutation.
+   *
+   * @param name         the name of the ingredient
+   * @param baseQuantity the quantity deducted, in millionths of the base unit
+   * @param unit         a unit compatible with the stored ingredient
+   */
+  record Removal(String name, long baseQuantity, Unit unit) {
+  }
+}
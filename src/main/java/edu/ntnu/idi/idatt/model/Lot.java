@@ -0,0 +1,92 @@
+package edu.ntnu.idi.idatt.model;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * One delivery of an ingredient: a quantity with its own best-before date and price.
+ * <p>
+ * Lots belong to an {@link Ingredient}, and their quantity and price are expressed in that
+ * ingredient's unit. Lots are consumed first-expired-first-out; lots with the same best-before
+ * date are consumed in the order they were received.
+ * </p>
+ */
+public final class Lot {
+
+  /**
+   * Orders lots by best-before date, then by the order they were received.
+   */
+  static final Comparator<Lot> FIRST_EXPIRED_FIRST =
+      Comparator.comparing(Lot::getBestBeforeDate).thenComparingLong(lot -> lot.sequence);
+
+  private final long sequence;
+  private final LocalDate bestBeforeDate;
+  private final double pricePerUnit;
+  private long baseQuantity;
+
+  /**
+   * Constructs a Lot.
+   *
+   * @param sequence       the position of the lot among the lots of its ingredient
+   * @param baseQuantity   the quantity in millionths of the base unit; must be positive
+   * @param bestBeforeDate the best-before date; cannot be null
+   * @param pricePerUnit   the price per unit of the owning ingredient
+   */
+  Lot(long sequence, long baseQuantity, LocalDate bestBeforeDate, double pricePerUnit) {
+    this.sequence = sequence;
+    this.baseQuantity = baseQuantity;
+    this.bestBeforeDate = bestBeforeDate;
+    this.pricePerUnit = pricePerUnit;
+  }
+
+  /**
+   * Gets the quantity left in the lot.
+   *
+   * @return the quantity in millionths of the base unit
+   */
+  public long getBaseQuantity() {
+    return baseQuantity;
+  }
+
+  /**
+   * Sets the quantity left in the lot. Only called by the owning ingredient.
+   *
+   * @param baseQuantity the quantity in millionths of the base unit
+   */
+  void setBaseQuantity(long baseQuantity) {
+    this.baseQuantity = baseQuantity;
+  }
+
+  /**
+   * Gets the best-before date of the lot.
+   *
+   * @return the best-before date
+   */
+  public LocalDate getBestBeforeDate() {
+    return bestBeforeDate;
+  }
+
+  /**
+   * Gets the price the lot was received at.
+   *
+   * @return the price per unit of the owning ingredient
+   */
+  public double getPricePerUnit() {
+    return pricePerUnit;
+  }
+
+  /**
+   * Returns a copy of the lot that no longer changes with the original.
+   *
+   * @return the copy
+   */
+  Lot copy() {
+    return new Lot(sequence, baseQuantity, bestBeforeDate, pricePerUnit);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Lot (Base quantity: %d, Best before: %s, Price: %.2f NOK)",
+        baseQuantity, bestBeforeDate, pricePerUnit);
+  }
+}
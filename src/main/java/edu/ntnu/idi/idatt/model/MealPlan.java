@@ -0,0 +1,20 @@
+package edu.ntnu.idi.idatt.model;
+
+import java.util.List;
+
+/**
+ * A sequence of meals over a number of days and the value of stock it saves from expiring.
+ *
+ * @param meals        the planned meals in date order; days without a meal are left out
+ * @param rescuedValue the value, in NOK, of stock that expires within the plan and is used
+ *                     before its best-before date
+ */
+public record MealPlan(List<PlannedMeal> meals, double rescuedValue) {
+
+  /**
+   * Constructs a meal plan with an unmodifiable copy of the meals.
+   */
+  public MealPlan {
+    meals = List.copyOf(meals);
+  }
+}
@@ -0,0 +1,257 @@
+package edu.ntnu.idi.idatt.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open-addressing hash table keyed by case-insensitive names, with lookups that do not allocate.
+ * <p>
+ * Names are normalized by trimming surrounding whitespace and lower-casing each character with
+ * {@link Character#toLowerCase(char)}, which does not depend on the default locale. Lookups hash
+ * and compare the caller's {@link CharSequence} character by character under the same folding, so
+ * no lower-case copy of the name is ever made on the read path.
+ * </p>
+ *
+ * <p>
+ * Reads never block and may run concurrently with inserts; a read that overlaps the insert of the
+ * same name may or may not see it. Removal moves other entries, so a read that overlaps a removal
+ * may miss a name that is present. Writes are serialized on the table.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+final class NameTable<V> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private volatile AtomicReferenceArray<Entry<V>> slots;
+  private int size;
+
+  /**
+   * Constructs an empty table.
+   */
+  NameTable() {
+    this.slots = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Returns the value stored under the given name, compared case-insensitively.
+   *
+   * @param name the name to look up
+   * @return the value, or null if no value is stored under the name
+   */
+  V get(CharSequence name) {
+    AtomicReferenceArray<Entry<V>> table = slots;
+    int mask = table.length() - 1;
+    for (int slot = hash(name) & mask; ; slot = (slot + 1) & mask) {
+      Entry<V> entry = table.get(slot);
+      if (entry == null) {
+        return null;
+      }
+      if (matches(name, entry.key())) {
+        return entry.value();
+      }
+    }
+  }
+
+  /**
+   * Stores a value under the given name unless a value is already stored under it.
+   *
+   * @param name  the name; cannot be null or empty
+   * @param value the value to store; cannot be null
+   * @return the value already stored under the name, or null if the new value was stored
+   */
+  synchronized V putIfAbsent(String name, V value) {
+    V existing = get(name);
+    if (existing != null) {
+      return existing;
+    }
+    if ((size + 1) * 2 > slots.length()) {
+      resize(slots.length() * 2);
+    }
+    insert(slots, new Entry<>(normalize(name), value));
+    size++;
+    return null;
+  }
+
+  /**
+   * Removes the value stored under the given name.
+   *
+   * @param name the name to remove
+   * @return the removed value, or null if no value was stored under the name
+   */
+  synchronized V remove(CharSequence name) {
+    AtomicReferenceArray<Entry<V>> table = slots;
+    int mask = table.length() - 1;
+    int slot = hash(name) & mask;
+    Entry<V> entry;
+    while ((entry = table.get(slot)) != null && !matches(name, entry.key())) {
+      slot = (slot + 1) & mask;
+    }
+    if (entry == null) {
+      return null;
+    }
+    V removed = entry.value();
+
+    // Shift later entries of the probe run back so that no lookup stops at the emptied slot.
+    int hole = slot;
+    for (int next = (hole + 1) & mask; (entry = table.get(next)) != null;
+        next = (next + 1) & mask) {
+      int home = hash(entry.key()) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        table.set(hole, entry);
+        hole = next;
+      }
+    }
+    table.set(hole, null);
+    size--;
+    return removed;
+  }
+
+  /**
+   * Returns the number of values in the table.
+   *
+   * @return the number of values
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns a copy of the values in the table, in slot order.
+   *
+   * @return the values
+   */
+  List<V> values() {
+    AtomicReferenceArray<Entry<V>> table = slots;
+    List<V> values = new ArrayList<>(size);
+    for (int i = 0; i < table.length(); i++) {
+      Entry<V> entry = table.get(i);
+      if (entry != null) {
+        values.add(entry.value());
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Normalizes a name the way the table keys it. Returns the trimmed name itself when it is
+   * already lower case.
+   *
+   * @param name the name to normalize
+   * @return the trimmed, lower-case name
+   */
+  static String normalize(String name) {
+    String trimmed = name.trim();
+    for (int i = 0; i < trimmed.length(); i++) {
+      char c = trimmed.charAt(i);
+      if (fold(c) != c) {
+        char[] folded = trimmed.toCharArray();
+        for (int j = i; j < folded.length; j++) {
+          folded[j] = fold(folded[j]);
+        }
+        return new String(folded);
+      }
+    }
+    return trimmed;
+  }
+
+  /**
+   * Hashes a name as its normalized form would hash, without normalizing it.
+   *
+   * @param name the name to hash
+   * @return the spread hash of the normalized name
+   */
+  static int hash(CharSequence name) {
+    int start = start(name);
+    int end = end(name, start);
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + fold(name.charAt(i));
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Checks whether a name is empty or consists only of whitespace.
+   *
+   * @param name the name to check
+   * @return true if the name is blank
+   */
+  static boolean isBlank(CharSequence name) {
+    return start(name) == name.length();
+  }
+
+  /**
+   * Checks whether a name normalizes to the given normalized key.
+   *
+   * @param name the name to compare
+   * @param key  a normalized name
+   * @return true if the name matches the key
+   */
+  static boolean matches(CharSequence name, String key) {
+    int start = start(name);
+    int end = end(name, start);
+    if (end - start != key.length()) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (fold(name.charAt(i)) != key.charAt(i - start)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void resize(int capacity) {
+    AtomicReferenceArray<Entry<V>> table = slots;
+    AtomicReferenceArray<Entry<V>> grown = new AtomicReferenceArray<>(capacity);
+    for (int i = 0; i < table.length(); i++) {
+      Entry<V> entry = table.get(i);
+      if (entry != null) {
+        insert(grown, entry);
+      }
+    }
+    slots = grown;
+  }
+
+  private static <V> void insert(AtomicReferenceArray<Entry<V>> table, Entry<V> entry) {
+    int mask = table.length() - 1;
+    int slot = hash(entry.key()) & mask;
+    while (table.get(slot) != null) {
+      slot = (slot + 1) & mask;
+    }
+    table.set(slot, entry);
+  }
+
+  private static char fold(char c) {
+    if (c < 0x80) {
+      return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    return Character.toLowerCase(c);
+  }
+
+  private static int start(CharSequence name) {
+    int start = 0;
+    while (start < name.length() && name.charAt(start) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  private static int end(CharSequence name, int start) {
+    int end = name.length();
+    while (end > start && name.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * A normalized name and its value. Entries are immutable, so a reader that sees an entry sees
+   * both fields.
+   */
+  private record Entry<V>(String key, V value) {
+  }
+}
@@ -0,0 +1,90 @@
+package edu.ntnu.idi.idatt.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * One page of a listing in name order, with a cursor for the next page.
+ * <p>
+ * The cursor is an opaque string that encodes the sort key of the last item on the page. Passing
+ * it back resumes right after that item with a seek in the underlying sorted map, so fetching a
+ * page costs O(log n + page size) no matter how far into the listing it is, and items added or
+ * removed between calls never cause an item to be repeated. Cursors are only meaningful for the
+ * listing that produced them.
+ * </p>
+ *
+ * @param items      the items on this page, in order
+ * @param nextCursor the cursor for the next page, or null if this is the last page
+ * @param <T>        the type of the items
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+
+  /**
+   * Constructs a Page.
+   *
+   * @param items      the items on this page; cannot be null
+   * @param nextCursor the cursor for the next page, or null if this is the last page
+   * @throws IllegalArgumentException if the items are null
+   */
+  public Page {
+    if (items == null) {
+      throw new IllegalArgumentException("Items cannot be null.");
+    }
+    items = List.copyOf(items);
+  }
+
+  /**
+   * Checks whether there is a page after this one.
+   *
+   * @return true if {@link #nextCursor()} is not null
+   */
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+
+  /**
+   * Reads one page from a map sorted by normalized name.
+   *
+   * @param sorted   the map to read
+   * @param cursor   the cursor returned with the previous page, or null for the first page
+   * @param pageSize the maximum number of items on the page; must be positive
+   * @param <T>      the type of the items
+   * @return the page
+   * @throws IllegalArgumentException if the page size is not positive or the cursor is invalid
+   */
+  static <T> Page<T> of(NavigableMap<String, ? extends T> sorted, String cursor, int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size must be positive.");
+    }
+    NavigableMap<String, ? extends T> rest = cursor == null
+        ? sorted
+        : sorted.tailMap(decode(cursor), false);
+    List<T> items = new ArrayList<>(Math.min(pageSize, 64));
+    String lastKey = null;
+    for (Map.Entry<String, ? extends T> entry : rest.entrySet()) {
+      if (items.size() == pageSize) {
+        return new Page<>(items, encode(lastKey));
+      }
+      items.add(entry.getValue());
+      lastKey = entry.getKey();
+    }
+    return new Page<>(items, null);
+  }
+
+  private static String encode(String key) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String decode(String cursor) {
+    try {
+      return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor.");
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package edu.ntnu.idi.idatt.model;
+
+import java.time.LocalDate;
+
+/**
+ * One batch of a recipe planned for a given day.
+ *
+ * @param date   the day the recipe is to be made
+ * @param recipe the recipe, made once as written
+ */
+public record PlannedMeal(LocalDate date, Recipe recipe) {
+}
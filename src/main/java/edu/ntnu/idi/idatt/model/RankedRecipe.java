@@ -0,0 +1,10 @@
+package edu.ntnu.idi.idatt.model;
+
+/**
+ * A recipe together with the score it was ranked by.
+ *
+ * @param recipe the recipe
+ * @param score  the score; higher ranks first
+ */
+public record RankedRecipe(Recipe recipe, double score) {
+}
@@ -1,20 +1,40 @@
 package edu.ntnu.idi.idatt.model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 /**
  * Represents a recipe with a name, description, preparation method, a list of ingredients with
  * required quantities and units, and the number of servings.
+ * <p>
+ * Requirements are stored in compiled form: three parallel arrays holding the
+ * {@link IngredientDictionary} id, the quantity in millionths of the base unit and the unit of
+ * each requirement, sorted by id. Checking the recipe against an inventory is a loop over these
+ * arrays with no boxing, iterators or unit conversions, and a recipe costs a few small arrays
+ * instead of a map of requirement objects. Ingredient names and {@link IngredientRequirement}
+ * objects are only built again when the requirements are shown.
+ * </p>
+ *
+ * <p>
+ * The recipe also keeps its ingredient ids as a sparse bitset, holding only the 64-bit words that
+ * have a bit set, so that an inventory can tell whether every ingredient is present with one AND
+ * and compare per word.
+ * </p>
  */
 public class Recipe {
 
   private final String name;
   private String description;
   private String preparationMethod;
-  private final Map<String, IngredientRequirement> ingredients;
+  private int[] ingredientIds;
+  private long[] baseQuantities;
+  private Unit[] units;
+  private IngredientMask ingredientMask;
   private int servings;
 
   /**
@@ -32,7 +52,10 @@ public class Recipe {
     this.description = validateDescription(description);
     this.preparationMethod = validatePreparationMethod(preparationMethod);
     this.servings = validateServings(servings);
-    this.ingredients = new HashMap<>();
+    this.ingredientIds = new int[0];
+    this.baseQuantities = new long[0];
+    this.units = new Unit[0];
+    this.ingredientMask = new IngredientMask(new int[0], new long[0]);
   }
 
   /**
@@ -48,19 +71,123 @@ public class Recipe {
     double validatedQuantity = validateQuantity(quantity);
     Unit validatedUnit = validateUnit(unit);
 
-    String key = validatedName.toLowerCase();
-    ingredients.put(key, new IngredientRequirement(validatedQuantity, validatedUnit));
+    int id = IngredientDictionary.idOf(validatedName);
+    long baseQuantity =
+        new IngredientRequirement(id, validatedQuantity, validatedUnit).getBaseQuantity();
+    putRequirement(id, baseQuantity, validatedUnit);
+  }
+
+  /**
+   * Adds an ingredient requirement with a quantity already in fixed-point millionths of the base
+   * unit, as stored by {@link IngredientRequirement#getBaseQuantity()}. Used to restore recipes
+   * from storage without a round trip through floating point.
+   *
+   * @param ingredientName the name of the ingredient; cannot be null or empty
+   * @param baseQuantity   the required quantity in millionths of the base unit; must be positive
+   * @param unit           the unit of measurement; cannot be null
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  public void addIngredientBaseQuantity(String ingredientName, long baseQuantity, Unit unit) {
+    String validatedName = validateIngredientName(ingredientName);
+    Unit validatedUnit = validateUnit(unit);
+    int id = IngredientDictionary.idOf(validatedName);
+    long validatedBaseQuantity =
+        IngredientRequirement.ofBaseQuantity(id, baseQuantity, validatedUnit).getBaseQuantity();
+    putRequirement(id, validatedBaseQuantity, validatedUnit);
+  }
+
+  /**
+   * Stores a requirement in the compiled arrays, replacing any earlier requirement for the same
+   * ingredient.
+   */
+  private void putRequirement(int id, long baseQuantity, Unit unit) {
+    int index = Arrays.binarySearch(ingredientIds, id);
+    if (index < 0) {
+      index = -index - 1;
+      ingredientIds = insert(ingredientIds, index);
+      baseQuantities = insert(baseQuantities, index);
+      units = insert(units, index);
+      ingredientIds[index] = id;
+      ingredientMask = IngredientMask.of(ingredientIds);
+    }
+    baseQuantities[index] = baseQuantity;
+    units[index] = unit;
   }
 
   // Getters and setters
 
   /**
-   * Returns an unmodifiable map of ingredients and their requirements.
+   * Returns an unmodifiable map of ingredients and their requirements, ordered by ingredient id.
+   * The map is built from the compiled requirements on every call.
    *
-   * @return a map of ingredient names to their requirements
+   * @return a map of normalized ingredient names to their requirements
    */
   public Map<String, IngredientRequirement> getIngredients() {
-    return Collections.unmodifiableMap(ingredients);
+    Map<String, IngredientRequirement> byName = new LinkedHashMap<>();
+    for (int i = 0; i < ingredientIds.length; i++) {
+      byName.put(IngredientDictionary.nameOf(ingredientIds[i]),
+          IngredientRequirement.ofBaseQuantity(ingredientIds[i], baseQuantities[i], units[i]));
+    }
+    return Collections.unmodifiableMap(byName);
+  }
+
+  /**
+   * Returns the number of ingredient requirements.
+   *
+   * @return the number of requirements
+   */
+  int getRequirementCount() {
+    return ingredientIds.length;
+  }
+
+  /**
+   * Returns the ingredient id of a requirement. Requirements are ordered by ascending id.
+   *
+   * @param index the position of the requirement
+   * @return the dictionary id of the required ingredient
+   */
+  int getIngredientIdAt(int index) {
+    return ingredientIds[index];
+  }
+
+  /**
+   * Returns the required quantity of a requirement.
+   *
+   * @param index the position of the requirement
+   * @return the quantity in millionths of the base unit
+   */
+  long getBaseQuantityAt(int index) {
+    return baseQuantities[index];
+  }
+
+  /**
+   * Returns the ingredient ids of the recipe as a sparse bitset.
+   *
+   * @return the ingredient mask
+   */
+  IngredientMask getIngredientMask() {
+    return ingredientMask;
+  }
+
+  /**
+   * Returns the position of the requirement for an ingredient.
+   *
+   * @param ingredientId the dictionary id of the ingredient
+   * @return the position of the requirement, or a negative value if the recipe does not require
+   *         the ingredient
+   */
+  int indexOfIngredient(int ingredientId) {
+    return Arrays.binarySearch(ingredientIds, ingredientId);
+  }
+
+  /**
+   * Returns the unit of a requirement.
+   *
+   * @param index the position of the requirement
+   * @return the unit the requirement was given in
+   */
+  Unit getUnitAt(int index) {
+    return units[index];
   }
 
   public String getName() {
@@ -145,8 +272,8 @@ public class Recipe {
   // Other methods, including equals, hashCode, and canBeMadeFromInventory...
 
   /**
-   * Checks if the required ingredients are available in the provided inventory. Performs unit
-   * conversions where necessary.
+   * Checks if the required ingredients are available in the provided inventory. Quantities are
+   * compared in base units, which the requirements were converted to when they were added.
    *
    * @param inventory the food inventory to check against; cannot be null
    * @return true if all ingredients are available in sufficient quantities, false otherwise
@@ -157,26 +284,175 @@ public class Recipe {
       throw new IllegalArgumentException("Inventory cannot be null.");
     }
 
-    return ingredients.entrySet().stream()
-        .allMatch(entry -> isIngredientAvailable(entry.getKey(), entry.getValue(), inventory));
+    int[] ids = ingredientIds;
+    long[] quantities = baseQuantities;
+    Unit[] requiredUnits = units;
+    for (int i = 0; i < ids.length; i++) {
+      Ingredient ingredient = inventory.findIngredientById(ids[i]);
+      if (ingredient == null
+          || ingredient.getUnit().getUnitType() != requiredUnits[i].getUnitType()
+          || ingredient.getBaseQuantity() < quantities[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns how many whole batches of the recipe the inventory allows, where a batch is the recipe
+   * as written. This is the smallest, over all requirements, of the stocked quantity divided by
+   * the required quantity in base units. Only the recipe's own ingredients are looked up, so the
+   * cost does not depend on the size of the inventory.
+   *
+   * @param inventory the food inventory to check against; cannot be null
+   * @return the number of batches, 0 if any ingredient is missing or stocked in an incompatible
+   *         unit, or {@link Long#MAX_VALUE} if the recipe has no ingredients
+   * @throws IllegalArgumentException if the inventory is null
+   */
+  public long getMaxBatches(FoodInventory inventory) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    int[] ids = ingredientIds;
+    long[] quantities = baseQuantities;
+    Unit[] requiredUnits = units;
+    long batches = Long.MAX_VALUE;
+    for (int i = 0; i < ids.length && batches > 0; i++) {
+      Ingredient ingredient = inventory.findIngredientById(ids[i]);
+      if (ingredient == null || !ingredient.getUnit().isCompatibleWith(requiredUnits[i])) {
+        return 0;
+      }
+      batches = Math.min(batches, ingredient.getBaseQuantity() / quantities[i]);
+    }
+    return batches;
+  }
+
+  /**
+   * Returns how many whole batches of the recipe the given stock allows.
+   *
+   * @param stock the stock levels to check against; cannot be null
+   * @return the number of batches, 0 if any ingredient is missing or stocked in an incompatible
+   *         unit, or {@link Long#MAX_VALUE} if the recipe has no ingredients
+   * @throws IllegalArgumentException if the stock levels are null
+   */
+  public long getMaxBatches(StockLevels stock) {
+    if (stock == null) {
+      throw new IllegalArgumentException("Stock levels cannot be null.");
+    }
+    int[] ids = ingredientIds;
+    long[] quantities = baseQuantities;
+    Unit[] requiredUnits = units;
+    long batches = Long.MAX_VALUE;
+    for (int i = 0; i < ids.length && batches > 0; i++) {
+      if (stock.getUnitType(ids[i]) != requiredUnits[i].getUnitType()) {
+        return 0;
+      }
+      batches = Math.min(batches, stock.getBaseQuantity(ids[i]) / quantities[i]);
+    }
+    return batches;
   }
 
+  /**
+   * Returns which ingredients the recipe lacks in the inventory, and by how much. Only the
+   * recipe's own ingredients are looked up.
+   *
+   * @param inventory the food inventory to check against; cannot be null
+   * @return the shortfall, with no missing ingredients if the recipe can be made
+   * @throws IllegalArgumentException if the inventory is null
+   */
+  public RecipeShortfall getShortfall(FoodInventory inventory) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    int[] ids = ingredientIds;
+    long[] quantities = baseQuantities;
+    Unit[] requiredUnits = units;
+    List<IngredientShortfall> missing = new ArrayList<>();
+    double total = 0;
+    for (int i = 0; i < ids.length; i++) {
+      Ingredient ingredient = inventory.findIngredientById(ids[i]);
+      long shortBy = ingredient == null || !ingredient.getUnit().isCompatibleWith(requiredUnits[i])
+          ? quantities[i]
+          : Math.max(0, quantities[i] - ingredient.getBaseQuantity());
+      if (shortBy > 0) {
+        IngredientShortfall shortfall = new IngredientShortfall(
+            IngredientDictionary.nameOf(ids[i]), shortBy, quantities[i], requiredUnits[i]);
+        missing.add(shortfall);
+        total += shortfall.getMissingFraction();
+      }
+    }
+    return new RecipeShortfall(this, missing, total);
+  }
 
-  private boolean isIngredientAvailable(String ingredientName, IngredientRequirement requirement,
-      FoodInventory inventory) {
-    Ingredient ingredient = inventory.findIngredientByName(ingredientName);
-    if (ingredient == null) {
-      return false;
+  /**
+   * Returns which ingredients the recipe lacks in the given stock, and by how much. An ingredient
+   * stocked in an incompatible unit counts as entirely missing.
+   *
+   * @param stock the stock levels to check against; cannot be null
+   * @return the shortfall, with no missing ingredients if the recipe can be made
+   * @throws IllegalArgumentException if the stock levels are null
+   */
+  public RecipeShortfall getShortfall(StockLevels stock) {
+    if (stock == null) {
+      throw new IllegalArgumentException("Stock levels cannot be null.");
+    }
+    List<IngredientShortfall> missing = new ArrayList<>();
+    double total = 0;
+    for (int i = 0; i < ingredientIds.length; i++) {
+      long shortBy = missingBaseQuantity(stock, i);
+      if (shortBy > 0) {
+        IngredientShortfall shortfall = new IngredientShortfall(
+            IngredientDictionary.nameOf(ingredientIds[i]), shortBy, baseQuantities[i], units[i]);
+        missing.add(shortfall);
+        total += shortfall.getMissingFraction();
+      }
     }
+    return new RecipeShortfall(this, missing, total);
+  }
 
-    if (!requirement.getUnit().isCompatibleWith(ingredient.getUnit())) {
-      return false;
+  /**
+   * Returns the total shortfall of the recipe without building the per-ingredient report.
+   *
+   * @param stock the stock levels to check against
+   * @return the sum of the missing fractions of the requirements, 0 if the recipe can be made
+   */
+  double getTotalShortfall(StockLevels stock) {
+    double total = 0;
+    for (int i = 0; i < ingredientIds.length; i++) {
+      long shortBy = missingBaseQuantity(stock, i);
+      if (shortBy > 0) {
+        total += (double) shortBy / baseQuantities[i];
+      }
+    }
+    return total;
+  }
+
+  private long missingBaseQuantity(StockLevels stock, int index) {
+    if (stock.getUnitType(ingredientIds[index]) != units[index].getUnitType()) {
+      return baseQuantities[index];
     }
+    return Math.max(0, baseQuantities[index] - stock.getBaseQuantity(ingredientIds[index]));
+  }
 
-    double requiredQuantityInBaseUnit = requirement.getUnit().toBaseUnit(requirement.getQuantity());
-    double availableQuantityInBaseUnit = ingredient.getUnit().toBaseUnit(ingredient.getQuantity());
+  private static int[] insert(int[] array, int index) {
+    int[] grown = new int[array.length + 1];
+    System.arraycopy(array, 0, grown, 0, index);
+    System.arraycopy(array, index, grown, index + 1, array.length - index);
+    return grown;
+  }
+
+  private static long[] insert(long[] array, int index) {
+    long[] grown = new long[array.length + 1];
+    System.arraycopy(array, 0, grown, 0, index);
+    System.arraycopy(array, index, grown, index + 1, array.length - index);
+    return grown;
+  }
 
-    return availableQuantityInBaseUnit >= requiredQuantityInBaseUnit;
+  private static Unit[] insert(Unit[] array, int index) {
+    Unit[] grown = new Unit[array.length + 1];
+    System.arraycopy(array, 0, grown, 0, index);
+    System.arraycopy(array, index, grown, index + 1, array.length - index);
+    return grown;
   }
 
   // toString, equals and hashCode methods based on name
@@ -203,4 +479,34 @@ public class Recipe {
   public int hashCode() {
     return Objects.hash(name.toLowerCase());
   }
+
+  /**
+   * Sparse bitset of ingredient ids: {@code bits[i]} is word {@code wordIndexes[i]} of the full
+   * bitset, and words without any bit set are left out.
+   *
+   * @param wordIndexes the indexes of the non-empty words, ascending
+   * @param bits        the non-empty words
+   */
+  record IngredientMask(int[] wordIndexes, long[] bits) {
+
+    /**
+     * Builds the mask of a sorted array of ids.
+     *
+     * @param sortedIds ingredient ids in ascending order
+     * @return the mask
+     */
+    static IngredientMask of(int[] sortedIds) {
+      int[] wordIndexes = new int[sortedIds.length];
+      long[] bits = new long[sortedIds.length];
+      int count = 0;
+      for (int id : sortedIds) {
+        int word = id / Long.SIZE;
+        if (count == 0 || wordIndexes[count - 1] != word) {
+          wordIndexes[count++] = word;
+        }
+        bits[count - 1] |= 1L << id;
+      }
+      return new IngredientMask(Arrays.copyOf(wordIndexes, count), Arrays.copyOf(bits, count));
+    }
+  }
 }
@@ -0,0 +1,11 @@
+package edu.ntnu.idi.idatt.model;
+
+/**
+ * The number of whole batches of a recipe that the current stock allows. A batch is the recipe as
+ * written, for {@link Recipe#getServings()} servings.
+ *
+ * @param recipe  the recipe
+ * @param batches the number of batches; {@link Long#MAX_VALUE} for a recipe without ingredients
+ */
+public record RecipeBatches(Recipe recipe, long batches) {
+}
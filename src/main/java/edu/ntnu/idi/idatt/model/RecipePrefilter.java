@@ -0,0 +1,41 @@
+package edu.ntnu.idi.idatt.model;
+
+/**
+ * Cheap first stage of {@link Cookbook#getRecipesCanBeMade(FoodInventory, RecipePrefilter)}.
+ * <p>
+ * A prefilter rejects recipes that certainly cannot be made before the full quantity check in
+ * {@link Recipe#canBeMadeFromInventory(FoodInventory)} runs. It may let through recipes that turn
+ * out not to be makeable, but must never reject one that is.
+ * </p>
+ */
+@FunctionalInterface
+public interface RecipePrefilter {
+
+  /**
+   * Decides whether a recipe is worth the full check.
+   *
+   * @param recipe    the recipe
+   * @param inventory the inventory the recipe is checked against
+   * @return false if the recipe certainly cannot be made, true otherwise
+   */
+  boolean mayBeMade(Recipe recipe, FoodInventory inventory);
+
+  /**
+   * Returns a prefilter that lets every recipe through.
+   *
+   * @return the pass-through prefilter
+   */
+  static RecipePrefilter none() {
+    return (recipe, inventory) -> true;
+  }
+
+  /**
+   * Returns the prefilter that rejects recipes with an ingredient that is not in stock at all,
+   * using {@link FoodInventory#containsAllIngredientsOf(Recipe)}.
+   *
+   * @return the ingredient presence prefilter
+   */
+  static RecipePrefilter ingredientPresence() {
+    return (recipe, inventory) -> inventory.containsAllIngredientsOf(recipe);
+  }
+}
@@ -0,0 +1,27 @@
+package edu.ntnu.idi.idatt.model;
+
+import java.util.List;
+
+/**
+ * What a recipe lacks to be made from the current stock.
+ * <p>
+ * The total shortfall is the sum of the missing fractions of the requirements, so it does not
+ * depend on units: a recipe missing half its flour and all of its eggs has a total of 1.5.
+ * </p>
+ *
+ * @param recipe         the recipe
+ * @param missing        the ingredients that are missing or insufficient; empty if the recipe can
+ *                       be made
+ * @param totalShortfall the sum of {@link IngredientShortfall#getMissingFraction()} over
+ *                       {@code missing}
+ */
+public record RecipeShortfall(Recipe recipe, List<IngredientShortfall> missing,
+                              double totalShortfall) {
+
+  /**
+   * Constructs a shortfall with an unmodifiable copy of the missing ingredients.
+   */
+  public RecipeShortfall {
+    missing = List.copyOf(missing);
+  }
+}
@@ -0,0 +1,47 @@
+package edu.ntnu.idi.idatt.model;
+
+/**
+ * Point-in-time copy of the stock in a {@link FoodInventory}, indexed by
+ * {@link IngredientDictionary} id.
+ * <p>
+ * Quantities and unit types are held in plain arrays, so questions that touch many recipes, such
+ * as {@link Cookbook#getMaxBatches(FoodInventory)}, read stock by array index instead of going
+ * through the inventory for every requirement. The copy does not change when the inventory does.
+ * </p>
+ */
+public final class StockLevels {
+
+  private final long[] baseQuantities;
+  private final Unit.UnitType[] unitTypes;
+
+  /**
+   * Constructs stock levels from arrays indexed by ingredient id. The arrays are not copied.
+   *
+   * @param baseQuantities the quantity of each ingredient in millionths of the base unit
+   * @param unitTypes      the unit type of each ingredient, null where the ingredient is absent
+   */
+  StockLevels(long[] baseQuantities, Unit.UnitType[] unitTypes) {
+    this.baseQuantities = baseQuantities;
+    this.unitTypes = unitTypes;
+  }
+
+  /**
+   * Returns the stocked quantity of an ingredient.
+   *
+   * @param id the dictionary id of the ingredient
+   * @return the quantity in millionths of the base unit, or 0 if the ingredient is absent
+   */
+  public long getBaseQuantity(int id) {
+    return id >= 0 && id < baseQuantities.length ? baseQuantities[id] : 0;
+  }
+
+  /**
+   * Returns the unit type an ingredient is stocked in.
+   *
+   * @param id the dictionary id of the ingredient
+   * @return the unit type, or null if the ingredient is absent
+   */
+  public Unit.UnitType getUnitType(int id) {
+    return id >= 0 && id < unitTypes.length ? unitTypes[id] : null;
+  }
+}
@@ -2,6 +2,11 @@ package edu.ntnu.idi.idatt.model;
 
 /**
  * Represents units of measurement with associated properties.
+ * <p>
+ * Besides the floating-point conversions, every unit can convert to and from a fixed-point
+ * representation: a {@code long} counting millionths of the base unit (micrograms, microliters
+ * or millionths of a piece). Quantities stored in this form add, subtract and compare exactly.
+ * </p>
  */
 public enum Unit {
 
@@ -18,14 +23,43 @@ public enum Unit {
   // Count Units
   PIECE("pcs", UnitType.COUNT, 1.0);
 
+  /**
+   * Number of fixed-point steps in one base unit.
+   */
+  public static final long MICROS_PER_BASE_UNIT = 1_000_000L;
+
+  private static final Unit[] VALUES = values();
+
   private final String abbreviation;
   private final UnitType unitType;
   private final double conversionFactorToBaseUnit;
+  private final long microsPerUnit;
 
   Unit(String abbreviation, UnitType unitType, double conversionFactorToBaseUnit) {
     this.abbreviation = abbreviation;
     this.unitType = unitType;
     this.conversionFactorToBaseUnit = conversionFactorToBaseUnit;
+    this.microsPerUnit = Math.round(conversionFactorToBaseUnit * MICROS_PER_BASE_UNIT);
+  }
+
+  /**
+   * Parses a unit from its abbreviation or its constant name, ignoring case, for example "dl",
+   * "DL" or "deciliter".
+   *
+   * @param text the text to parse; cannot be null
+   * @return the unit
+   * @throws IllegalArgumentException if the text is null or names no unit
+   */
+  public static Unit parse(String text) {
+    if (text == null) {
+      throw new IllegalArgumentException("Unit cannot be null.");
+    }
+    for (Unit unit : VALUES) {
+      if (unit.abbreviation.equalsIgnoreCase(text) || unit.name().equalsIgnoreCase(text)) {
+        return unit;
+      }
+    }
+    throw new IllegalArgumentException("Unknown unit: " + text);
   }
 
   /**
@@ -80,6 +114,27 @@ public enum Unit {
     return baseQuantity / conversionFactorToBaseUnit;
   }
 
+  /**
+   * Converts a quantity from this unit to fixed-point millionths of the base unit, rounding to the
+   * nearest step.
+   *
+   * @param quantity the quantity in this unit
+   * @return the equivalent quantity in millionths of the base unit
+   */
+  public long toMicroBaseUnits(double quantity) {
+    return Math.round(quantity * microsPerUnit);
+  }
+
+  /**
+   * Converts a quantity in fixed-point millionths of the base unit to this unit.
+   *
+   * @param microBaseQuantity the quantity in millionths of the base unit
+   * @return the equivalent quantity in this unit
+   */
+  public double fromMicroBaseUnits(long microBaseQuantity) {
+    return (double) microBaseQuantity / microsPerUnit;
+  }
+
   /**
    * Converts a quantity from this unit to another compatible unit.
    *
@@ -0,0 +1,309 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import edu.ntnu.idi.idatt.model.Cookbook;
+import edu.ntnu.idi.idatt.model.IngredientRequirement;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only, memory-mapped binary snapshot of a {@link Cookbook}.
+ *
+ * <p>
+ * {@link #write(Cookbook, Path)} stores a cookbook as a compact file: a table of distinct strings
+ * shared by all recipes, a fixed-width recipe table sorted by the name as normalized by
+ * {@link Cookbook#normalizeName(String)}, and one packed
+ * array of ingredient requirements. {@link #open(Path)} only maps the file into memory. Recipes
+ * are decoded when they are first asked for, and {@link #findRecipeByName(String)} is a binary
+ * search over the mapped recipe table, so opening a snapshot costs the same regardless of the
+ * number of recipes.
+ * </p>
+ *
+ * <p>
+ * File layout, all integers big-endian:
+ * </p>
+ * <pre>
+ * header        magic, version, stringCount, recipeCount, requirementCount   (5 x int)
+ * stringOffsets stringCount + 1 offsets into the string data                 (int each)
+ * recipes       nameString, descriptionString, methodString, servings,
+ *               firstRequirement, requirementCount                           (6 x int each)
+ * requirements  ingredientString, unitOrdinal, baseQuantity                  (int, int, long)
+ * stringData    UTF-8 bytes of every string, back to back
+ * </pre>
+ */
+public final class CookbookSnapshot {
+
+  private static final int MAGIC = 0x46574331;
+  private static final int VERSION = 2;
+  private static final int HEADER_BYTES = 5 * Integer.BYTES;
+  private static final int RECIPE_BYTES = 6 * Integer.BYTES;
+  private static final int REQUIREMENT_BYTES = 2 * Integer.BYTES + Long.BYTES;
+
+  private final ByteBuffer buffer;
+  private final int stringCount;
+  private final int recipeCount;
+  private final int stringOffsetsStart;
+  private final int recipesStart;
+  private final int requirementsStart;
+  private final int stringDataStart;
+  private final AtomicReferenceArray<Recipe> decoded;
+
+  private CookbookSnapshot(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a cookbook snapshot.");
+    }
+    if (buffer.getInt(Integer.BYTES) != VERSION) {
+      throw new IOException("Unsupported cookbook snapshot version: "
+          + buffer.getInt(Integer.BYTES));
+    }
+    this.stringCount = buffer.getInt(2 * Integer.BYTES);
+    this.recipeCount = buffer.getInt(3 * Integer.BYTES);
+    int requirementCount = buffer.getInt(4 * Integer.BYTES);
+    if (stringCount < 0 || recipeCount < 0 || requirementCount < 0) {
+      throw new IOException("Cookbook snapshot has a corrupt header.");
+    }
+    // The counts come from the file, so the offsets are computed in long to catch overflow
+    long recipesStart = HEADER_BYTES + (stringCount + 1L) * Integer.BYTES;
+    long requirementsStart = recipesStart + (long) recipeCount * RECIPE_BYTES;
+    long stringDataStart = requirementsStart + (long) requirementCount * REQUIREMENT_BYTES;
+    if (stringDataStart > buffer.capacity()) {
+      throw new IOException("Cookbook snapshot is truncated.");
+    }
+    // The last entry of the string offset table is the length of the string data
+    int stringBytes = buffer.getInt((int) recipesStart - Integer.BYTES);
+    if (stringBytes < 0 || stringDataStart + stringBytes > buffer.capacity()) {
+      throw new IOException("Cookbook snapshot is truncated.");
+    }
+    this.stringOffsetsStart = HEADER_BYTES;
+    this.recipesStart = (int) recipesStart;
+    this.requirementsStart = (int) requirementsStart;
+    this.stringDataStart = (int) stringDataStart;
+    this.decoded = new AtomicReferenceArray<>(recipeCount);
+  }
+
+  /**
+   * Maps a snapshot file into memory. No recipe is decoded until it is requested.
+   *
+   * @param path the snapshot file; cannot be null
+   * @return the opened snapshot
+   * @throws IOException              if the file cannot be mapped or is not a valid snapshot
+   * @throws IllegalArgumentException if the path is null
+   */
+  public static CookbookSnapshot open(Path path) throws IOException {
+    if (path == null) {
+      throw new IllegalArgumentException("Path cannot be null.");
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Cookbook snapshot is larger than 2 GB.");
+      }
+      return new CookbookSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+  }
+
+  /**
+   * Writes a snapshot of the cookbook. The file is written next to the target and moved into place,
+   * so readers never see a partial snapshot.
+   *
+   * @param cookbook the cookbook to write; cannot be null
+   * @param path     the snapshot file; cannot be null
+   * @throws IOException              if the file cannot be written
+   * @throws IllegalArgumentException if any parameter is null
+   */
+  public static void write(Cookbook cookbook, Path path) throws IOException {
+    if (cookbook == null) {
+      throw new IllegalArgumentException("Cookbook cannot be null.");
+    }
+    if (path == null) {
+      throw new IllegalArgumentException("Path cannot be null.");
+    }
+
+    List<Recipe> recipes = new ArrayList<>(cookbook.getAllRecipes());
+    recipes.sort(Comparator.comparing(recipe -> Cookbook.normalizeName(recipe.getName())));
+
+    Map<String, Integer> stringIds = new HashMap<>();
+    List<byte[]> strings = new ArrayList<>();
+    int[] recipeTable = new int[recipes.size() * 6];
+    List<Map.Entry<String, IngredientRequirement>> requirements = new ArrayList<>();
+    for (int i = 0; i < recipes.size(); i++) {
+      Recipe recipe = recipes.get(i);
+      recipeTable[i * 6] = intern(recipe.getName(), stringIds, strings);
+      recipeTable[i * 6 + 1] = intern(recipe.getDescription(), stringIds, strings);
+      recipeTable[i * 6 + 2] = intern(recipe.getPreparationMethod(), stringIds, strings);
+      recipeTable[i * 6 + 3] = recipe.getServings();
+      recipeTable[i * 6 + 4] = requirements.size();
+      recipeTable[i * 6 + 5] = recipe.getIngredients().size();
+      requirements.addAll(recipe.getIngredients().entrySet());
+    }
+    int[] requirementNames = new int[requirements.size()];
+    for (int i = 0; i < requirements.size(); i++) {
+      requirementNames[i] = intern(requirements.get(i).getKey(), stringIds, strings);
+    }
+
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        Files.newOutputStream(temporary)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(strings.size());
+      out.writeInt(recipes.size());
+      out.writeInt(requirements.size());
+      int offset = 0;
+      for (byte[] string : strings) {
+        out.writeInt(offset);
+        offset += string.length;
+      }
+      out.writeInt(offset);
+      for (int value : recipeTable) {
+        out.writeInt(value);
+      }
+      for (int i = 0; i < requirements.size(); i++) {
+        IngredientRequirement requirement = requirements.get(i).getValue();
+        out.writeInt(requirementNames[i]);
+        out.writeInt(requirement.getUnit().ordinal());
+        out.writeLong(requirement.getBaseQuantity());
+      }
+      for (byte[] string : strings) {
+        out.write(string);
+      }
+    }
+    Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Returns the number of recipes in the snapshot.
+   *
+   * @return the number of recipes
+   */
+  public int size() {
+    return recipeCount;
+  }
+
+  /**
+   * Returns the recipe at the given position. Recipes are ordered by normalized name. Each recipe
+   * is decoded on first access and the same instance is returned afterwards.
+   *
+   * @param index the position of the recipe
+   * @return the recipe
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public Recipe getRecipe(int index) {
+    if (index < 0 || index >= recipeCount) {
+      throw new IndexOutOfBoundsException("Recipe index out of range: " + index);
+    }
+    Recipe recipe = decoded.get(index);
+    if (recipe == null) {
+      recipe = decodeRecipe(index);
+      if (!decoded.compareAndSet(index, null, recipe)) {
+        recipe = decoded.get(index);
+      }
+    }
+    return recipe;
+  }
+
+  /**
+   * Finds a recipe by name with a binary search over the mapped recipe table. Only the names
+   * visited by the search and the matching recipe are decoded.
+   *
+   * @param name the name of the recipe; cannot be null or empty
+   * @return the recipe if found, or null if not found
+   * @throws IllegalArgumentException if the name is null or empty
+   */
+  public Recipe findRecipeByName(String name) {
+    if (name == null || name.trim().isEmpty()) {
+      throw new IllegalArgumentException("Recipe name cannot be null or empty.");
+    }
+    String key = Cookbook.normalizeName(name);
+    int low = 0;
+    int high = recipeCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = Cookbook.normalizeName(readString(buffer.getInt(recipeOffset(middle))))
+          .compareTo(key);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return getRecipe(middle);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Decodes every recipe into a new, independent cookbook.
+   *
+   * @return a cookbook holding all recipes in the snapshot
+   */
+  public Cookbook toCookbook() {
+    Cookbook cookbook = new Cookbook();
+    for (int i = 0; i < recipeCount; i++) {
+      cookbook.addRecipe(decodeRecipe(i));
+    }
+    return cookbook;
+  }
+
+  private Recipe decodeRecipe(int index) {
+    int offset = recipeOffset(index);
+    Recipe recipe = new Recipe(
+        readString(buffer.getInt(offset)),
+        readString(buffer.getInt(offset + Integer.BYTES)),
+        readString(buffer.getInt(offset + 2 * Integer.BYTES)),
+        buffer.getInt(offset + 3 * Integer.BYTES));
+    int first = buffer.getInt(offset + 4 * Integer.BYTES);
+    int count = buffer.getInt(offset + 5 * Integer.BYTES);
+    Unit[] units = Unit.values();
+    for (int i = first; i < first + count; i++) {
+      int requirementOffset = requirementsStart + i * REQUIREMENT_BYTES;
+      recipe.addIngredientBaseQuantity(
+          readString(buffer.getInt(requirementOffset)),
+          buffer.getLong(requirementOffset + 2 * Integer.BYTES),
+          units[buffer.getInt(requirementOffset + Integer.BYTES)]);
+    }
+    return recipe;
+  }
+
+  private int recipeOffset(int index) {
+    return recipesStart + index * RECIPE_BYTES;
+  }
+
+  private String readString(int id) {
+    if (id < 0 || id >= stringCount) {
+      throw new IllegalStateException("Corrupt cookbook snapshot: string id " + id);
+    }
+    int start = buffer.getInt(stringOffsetsStart + id * Integer.BYTES);
+    int end = buffer.getInt(stringOffsetsStart + (id + 1) * Integer.BYTES);
+    byte[] bytes = new byte[end - start];
+    buffer.get(stringDataStart + start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int intern(String value, Map<String, Integer> ids, List<byte[]> strings) {
+    Integer id = ids.get(value);
+    if (id == null) {
+      id = strings.size();
+      ids.put(value, id);
+      strings.add(value.getBytes(StandardCharsets.UTF_8));
+    }
+    return id;
+  }
+}
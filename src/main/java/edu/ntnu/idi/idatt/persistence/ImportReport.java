@@ -0,0 +1,38 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk import.
+ *
+ * @param imported the number of rows added to the inventory
+ * @param failed   the number of rows that were skipped
+ * @param errors   skipped rows, at most {@link IngredientImporter#MAX_REPORTED_ERRORS} of them,
+ *                 sorted by line
+ */
+public record ImportReport(long imported, long failed, List<RowError> errors) {
+
+  /**
+   * Constructs an ImportReport.
+   *
+   * @param imported the number of rows added to the inventory
+   * @param failed   the number of rows that were skipped
+   * @param errors   the skipped rows; cannot be null
+   * @throws IllegalArgumentException if the errors are null
+   */
+  public ImportReport {
+    if (errors == null) {
+      throw new IllegalArgumentException("Errors cannot be null.");
+    }
+    errors = List.copyOf(errors);
+  }
+
+  /**
+   * A row that could not be imported.
+   *
+   * @param line    the line number of the row, starting at 1
+   * @param message why the row was skipped
+   */
+  public record RowError(long line, String message) {
+  }
+}
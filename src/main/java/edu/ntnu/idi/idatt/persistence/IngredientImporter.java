@@ -0,0 +1,347 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming bulk importer of ingredients from CSV or JSON-lines files.
+ *
+ * <p>
+ * Input is read one line at a time and parsed in place, so memory use does not depend on the size
+ * of the file. Parsed ingredients are collected into batches and merged with
+ * {@link FoodInventory#addIngredients(List)}, which takes the inventory locks once per batch.
+ * Rows that cannot be parsed or merged are skipped and reported with their line number; the rest
+ * of the file is still imported.
+ * </p>
+ *
+ * <p>
+ * Both formats carry the same five fields: name, quantity, unit, best-before date (YYYY-MM-DD)
+ * and price per unit. The unit is parsed with {@link Unit#parse(String)}.
+ * </p>
+ * <pre>
+ * CSV          name,quantity,unit,bestBefore,pricePerUnit
+ *              "Milk, whole",2,L,2030-01-01,20
+ * JSON lines   {"name": "Milk, whole", "quantity": 2, "unit": "L",
+ *               "bestBefore": "2030-01-01", "pricePerUnit": 20}
+ * </pre>
+ *
+ * <p>
+ * CSV fields may be quoted, with {@code ""} for a quote inside a quoted field, and a first line
+ * starting with the field {@code name} is taken as a header. JSON objects must be flat and on one
+ * line; unknown keys are ignored. Blank lines are skipped in both formats.
+ * </p>
+ */
+public class IngredientImporter {
+
+  /**
+   * The supported input formats.
+   */
+  public enum Format {
+    CSV,
+    JSON_LINES;
+
+    /**
+     * Picks the format from a file extension: {@code .csv}, or {@code .jsonl} and {@code .ndjson}.
+     *
+     * @param path the file; cannot be null
+     * @return the format of the file
+     * @throws IllegalArgumentException if the path is null or the extension is not recognized
+     */
+    public static Format fromPath(Path path) {
+      if (path == null) {
+        throw new IllegalArgumentException("Path cannot be null.");
+      }
+      String name = path.getFileName().toString().toLowerCase();
+      if (name.endsWith(".csv")) {
+        return CSV;
+      }
+      if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+        return JSON_LINES;
+      }
+      throw new IllegalArgumentException("Unknown import format: " + name);
+    }
+  }
+
+  /**
+   * Number of ingredients merged into the inventory at a time by default.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+
+  /**
+   * Maximum number of row errors kept in a report. Further failures are only counted.
+   */
+  public static final int MAX_REPORTED_ERRORS = 1000;
+
+  private static final int NAME = 0;
+  private static final int QUANTITY = 1;
+  private static final int UNIT = 2;
+  private static final int BEST_BEFORE = 3;
+  private static final int PRICE = 4;
+  private static final int FIELD_COUNT = 5;
+  private static final String[] FIELD_NAMES =
+      {"name", "quantity", "unit", "bestBefore", "pricePerUnit"};
+
+  private final FoodInventory inventory;
+  private final int batchSize;
+
+  /**
+   * Constructs an importer with the default batch size.
+   *
+   * @param inventory the inventory to import into; cannot be null
+   * @throws IllegalArgumentException if the inventory is null
+   */
+  public IngredientImporter(FoodInventory inventory) {
+    this(inventory, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Constructs an importer.
+   *
+   * @param inventory the inventory to import into; cannot be null
+   * @param batchSize the number of ingredients merged at a time; must be positive
+   * @throws IllegalArgumentException if the inventory is null or the batch size is not positive
+   */
+  public IngredientImporter(FoodInventory inventory, int batchSize) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive.");
+    }
+    this.inventory = inventory;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Imports a UTF-8 file, picking the format from its extension.
+   *
+   * @param path the file to import; cannot be null
+   * @return the report of the import
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the path is null or its extension is not recognized
+   */
+  public ImportReport importFile(Path path) throws IOException {
+    Format format = Format.fromPath(path);
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return importFrom(reader, format);
+    }
+  }
+
+  /**
+   * Imports every row the reader yields.
+   *
+   * @param reader the input; cannot be null, and is not closed
+   * @param format the format of the input; cannot be null
+   * @return the report of the import
+   * @throws IOException              if reading fails
+   * @throws IllegalArgumentException if any parameter is null
+   */
+  public ImportReport importFrom(BufferedReader reader, Format format) throws IOException {
+    if (reader == null) {
+      throw new IllegalArgumentException("Reader cannot be null.");
+    }
+    if (format == null) {
+      throw new IllegalArgumentException("Format cannot be null.");
+    }
+    Run run = new Run(format);
+    String line;
+    long lineNumber = 0;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      run.accept(line, lineNumber);
+    }
+    run.flush();
+    // Rows rejected by the inventory are only known when their batch is merged
+    run.errors.sort(Comparator.comparingLong(ImportReport.RowError::line));
+    return new ImportReport(run.imported, run.failed, run.errors);
+  }
+
+  /**
+   * The state of one import: the reusable parse buffers, the pending batch and the counters.
+   */
+  private final class Run {
+
+    private final Format format;
+    private final String[] fields = new String[FIELD_COUNT];
+    private final StringBuilder value = new StringBuilder();
+    private final List<Ingredient> batch = new ArrayList<>(batchSize);
+    private final long[] batchLines = new long[batchSize];
+    private final List<ImportReport.RowError> errors = new ArrayList<>();
+    private boolean firstRow = true;
+    private long imported;
+    private long failed;
+
+    Run(Format format) {
+      this.format = format;
+    }
+
+    void accept(String line, long lineNumber) {
+      if (line.isBlank()) {
+        return;
+      }
+      try {
+        if (format == Format.CSV) {
+          parseCsv(line);
+          if (firstRow && fields[NAME].trim().equalsIgnoreCase("name")) {
+            firstRow = false;
+            return;
+          }
+        } else {
+          parseJson(line);
+        }
+        firstRow = false;
+        batchLines[batch.size()] = lineNumber;
+        batch.add(toIngredient());
+      } catch (IllegalArgumentException | DateTimeParseException e) {
+        firstRow = false;
+        fail(lineNumber, e.getMessage());
+        return;
+      }
+      if (batch.size() == batchSize) {
+        flush();
+      }
+    }
+
+    void flush() {
+      if (batch.isEmpty()) {
+        return;
+      }
+      Map<Integer, String> failures = inventory.addIngredients(batch);
+      imported += batch.size() - failures.size();
+      for (Map.Entry<Integer, String> failure : failures.entrySet()) {
+        fail(batchLines[failure.getKey()], failure.getValue());
+      }
+      batch.clear();
+    }
+
+    private void fail(long lineNumber, String message) {
+      failed++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new ImportReport.RowError(lineNumber, message));
+      }
+    }
+
+    private Ingredient toIngredient() {
+      for (int i = 0; i < FIELD_COUNT; i++) {
+        if (fields[i] == null) {
+          throw new IllegalArgumentException("Missing field: " + FIELD_NAMES[i]);
+        }
+      }
+      return new Ingredient(fields[NAME], parseNumber(fields[QUANTITY], QUANTITY),
+          Unit.parse(fields[UNIT].trim()), LocalDate.parse(fields[BEST_BEFORE].trim()),
+          parseNumber(fields[PRICE], PRICE));
+    }
+
+    private double parseNumber(String text, int field) {
+      try {
+        return Double.parseDouble(text);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid " + FIELD_NAMES[field] + ": " + text);
+      }
+    }
+
+    /**
+     * Splits a CSV line into the five fields.
+     */
+    private void parseCsv(String line) {
+      int field = 0;
+      int i = 0;
+      int length = line.length();
+      while (true) {
+        value.setLength(0);
+        if (i < length && line.charAt(i) == '"') {
+          i++;
+          while (true) {
+            if (i == length) {
+              throw new IllegalArgumentException("Unterminated quote.");
+            }
+            char c = line.charAt(i++);
+            if (c == '"') {
+              if (i < length && line.charAt(i) == '"') {
+                value.append('"');
+                i++;
+              } else {
+                break;
+              }
+            } else {
+              value.append(c);
+            }
+          }
+          if (i < length && line.charAt(i) != ',') {
+            throw new IllegalArgumentException("Unexpected text after quoted field.");
+          }
+        } else {
+          while (i < length && line.charAt(i) != ',') {
+            value.append(line.charAt(i++));
+          }
+        }
+        if (field == FIELD_COUNT) {
+          throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields.");
+        }
+        fields[field++] = value.toString();
+        if (i == length) {
+          break;
+        }
+        i++;
+      }
+      if (field != FIELD_COUNT) {
+        throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields.");
+      }
+    }
+
+    /**
+     * Reads the five fields from a flat JSON object. String and number values are kept as their
+     * text; other keys are skipped.
+     */
+    private void parseJson(String line) {
+      Arrays.fill(fields, null);
+      JsonCursor cursor = new JsonCursor(line);
+      cursor.expect('{');
+      if (cursor.peek() == '}') {
+        cursor.next();
+      } else {
+        while (true) {
+          String key = cursor.readString(value);
+          cursor.expect(':');
+          int field = fieldIndex(key);
+          String text = cursor.readValue(value);
+          if (field >= 0) {
+            fields[field] = text;
+          }
+          char c = cursor.next();
+          if (c == '}') {
+            break;
+          }
+          if (c != ',') {
+            throw new IllegalArgumentException("Expected ',' or '}' in JSON object.");
+          }
+        }
+      }
+      if (cursor.peek() != 0) {
+        throw new IllegalArgumentException("Unexpected text after JSON object.");
+      }
+    }
+  }
+
+  private static int fieldIndex(String key) {
+    for (int i = 0; i < FIELD_COUNT; i++) {
+      if (FIELD_NAMES[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,824 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.InventoryListener;
+import edu.ntnu.idi.idatt.model.Lot;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal that makes a {@link FoodInventory} durable.
+ *
+ * <p>
+ * The journal registers itself as an {@link InventoryListener} and records every mutation as a
+ * compact binary record before the inventory applies it. Records are framed with their length and
+ * a CRC32 checksum, so a record torn by a crash is detected and ignored on recovery. The
+ * deductions of an all-or-nothing mutation, such as cooking a recipe, share one record, as do the
+ * lots of an ingredient added in one step, so they are recovered together or not at all.
+ * </p>
+ *
+ * <p>
+ * The log is split into numbered segments in one directory. A checkpoint writes a snapshot of the
+ * whole inventory, taken at the exact moment a new segment is started, and then deletes the older
+ * segments and snapshots. Recovery loads the newest snapshot and replays only the segments written
+ * after it, so restart time is bounded by the inventory size and the checkpoint interval rather
+ * than by the age of the journal.
+ * </p>
+ *
+ * <p>
+ * When records reach the disk is governed by the {@link FsyncPolicy}. Under
+ * {@link FsyncPolicy#ALWAYS} writers use group commit: a writer that finds a sync in progress waits
+ * for it, and the next sync covers every record appended in the meantime.
+ * </p>
+ *
+ * <p>
+ * A failed write or sync may leave a partial record in the segment and loses the records that were
+ * waiting for it. Records appended after it would be discarded on recovery along with the torn
+ * one, so the first failure makes the journal unusable: every later mutation and sync fails
+ * instead of being acknowledged.
+ * </p>
+ */
+public class InventoryJournal implements InventoryListener, Closeable {
+
+  /**
+   * Controls when appended records are forced to stable storage.
+   */
+  public enum FsyncPolicy {
+    /**
+     * Every mutation is on disk before it is applied. Concurrent writers share syncs.
+     */
+    ALWAYS,
+    /**
+     * Records are written and synced by a background task at a fixed interval. A crash loses at
+     * most the last interval.
+     */
+    INTERVAL,
+    /**
+     * Records are handed to the operating system but never explicitly synced, except at
+     * checkpoints and on close.
+     */
+    NEVER
+  }
+
+  private static final int SEGMENT_MAGIC = 0x46574a31;
+  private static final int SNAPSHOT_MAGIC = 0x46575331;
+  private static final byte RECORD_ADD = 1;
+  private static final byte RECORD_REMOVE = 2;
+  private static final byte RECORD_REMOVE_ALL = 3;
+  private static final byte RECORD_ADD_LOTS = 4;
+  private static final int WRITE_THRESHOLD = 1 << 16;
+  private static final String SEGMENT_PREFIX = "journal-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String SNAPSHOT_PREFIX = "snapshot-";
+  private static final String SNAPSHOT_SUFFIX = ".bin";
+
+  private final Path directory;
+  private final FsyncPolicy fsyncPolicy;
+  private final Duration fsyncInterval;
+
+  private final Object writeLock = new Object();
+  private final Object syncLock = new Object();
+  private final Object checkpointLock = new Object();
+
+  private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+  private final DataOutputStream recordOut = new DataOutputStream(recordBuffer);
+  private final CRC32 crc = new CRC32();
+  private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+  private FileChannel channel;
+  private long segmentId;
+  private long appendedCount;
+  private long syncedCount;
+  private long countAtLastCheckpoint;
+  private FoodInventory attachedInventory;
+  private ScheduledExecutorService scheduler;
+  private volatile IOException failure;
+
+  /**
+   * Creates a journal stored in the given directory. Nothing is read or written until
+   * {@link #recover(FoodInventory)} is called.
+   *
+   * @param directory     the directory holding segments and snapshots; created if missing
+   * @param fsyncPolicy   when records are forced to disk; cannot be null
+   * @param fsyncInterval how often records are synced under {@link FsyncPolicy#INTERVAL}; must be
+   *                      positive
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  public InventoryJournal(Path directory, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+    if (directory == null) {
+      throw new IllegalArgumentException("Directory cannot be null.");
+    }
+    if (fsyncPolicy == null) {
+      throw new IllegalArgumentException("Fsync policy cannot be null.");
+    }
+    if (fsyncInterval == null || fsyncInterval.isNegative() || fsyncInterval.isZero()) {
+      throw new IllegalArgumentException("Fsync interval must be positive.");
+    }
+    this.directory = directory;
+    this.fsyncPolicy = fsyncPolicy;
+    this.fsyncInterval = fsyncInterval;
+  }
+
+  /**
+   * Restores the journaled state into an inventory and starts journaling its mutations.
+   * <p>
+   * The newest snapshot is loaded and the segments written after it are replayed, stopping at a
+   * torn record at the end of the last segment. A new segment is then opened and the journal
+   * registers itself as a listener of the inventory.
+   * </p>
+   *
+   * @param inventory the inventory to restore into; should be empty; cannot be null
+   * @return true if any journaled state was found, false if the journal was empty
+   * @throws IOException              if the journal cannot be read or the new segment cannot be
+   *                                  created
+   * @throws IllegalStateException    if the journal has already been recovered
+   * @throws IllegalArgumentException if the inventory is null
+   */
+  public boolean recover(FoodInventory inventory) throws IOException {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    synchronized (checkpointLock) {
+      if (attachedInventory != null) {
+        throw new IllegalStateException("Journal has already been recovered.");
+      }
+      Files.createDirectories(directory);
+
+      long snapshotId = newestId(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+      boolean found = false;
+      if (snapshotId >= 0) {
+        loadSnapshot(snapshotPath(snapshotId), inventory);
+        found = true;
+      }
+      List<Long> segments = segmentIdsFrom(Math.max(snapshotId, 0));
+      for (int i = 0; i < segments.size(); i++) {
+        boolean last = i == segments.size() - 1;
+        found |= replaySegment(segmentPath(segments.get(i)), inventory, last);
+      }
+
+      long lastId = segments.isEmpty() ? Math.max(snapshotId, 0) : segments.get(
+          segments.size() - 1);
+      synchronized (writeLock) {
+        openSegment(lastId + 1);
+      }
+      attachedInventory = inventory;
+      inventory.addListener(this);
+      if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+        long millis = fsyncInterval.toMillis();
+        scheduler().scheduleWithFixedDelay(this::syncQuietly, millis, millis,
+            TimeUnit.MILLISECONDS);
+      }
+      return found;
+    }
+  }
+
+  /**
+   * Takes checkpoints in the background at a fixed interval. A checkpoint is skipped when nothing
+   * has been journaled since the previous one.
+   *
+   * @param interval the time between checkpoints; must be positive
+   * @throws IllegalStateException    if the journal has not been recovered
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  public void startCheckpointing(Duration interval) {
+    if (interval == null || interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("Checkpoint interval must be positive.");
+    }
+    synchronized (checkpointLock) {
+      requireRecovered();
+      long millis = interval.toMillis();
+      scheduler().scheduleWithFixedDelay(() -> {
+        try {
+          if (hasRecordsSinceCheckpoint()) {
+            checkpoint();
+          }
+        } catch (IOException | IllegalStateException e) {
+          System.err.println("Inventory checkpoint failed: " + e.getMessage());
+        }
+      }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Writes a snapshot of the inventory and compacts the journal.
+   * <p>
+   * Mutations are blocked only while the inventory is copied and a new segment is started. The
+   * snapshot is then written to a temporary file, synced and moved into place, after which every
+   * older segment and snapshot is deleted.
+   * </p>
+   *
+   * @throws IOException           if the snapshot cannot be written
+   * @throws IllegalStateException if the journal has not been recovered
+   */
+  public void checkpoint() throws IOException {
+    synchronized (checkpointLock) {
+      requireRecovered();
+      long[] newSegment = new long[1];
+      IOException[] failure = new IOException[1];
+      List<Ingredient> state = attachedInventory.snapshot(() -> {
+        try {
+          synchronized (syncLock) {
+            synchronized (writeLock) {
+              writePending(true);
+              channel.close();
+              openSegment(segmentId + 1);
+              newSegment[0] = segmentId;
+              countAtLastCheckpoint = appendedCount;
+            }
+          }
+        } catch (IOException e) {
+          failure[0] = e;
+        }
+      });
+      if (failure[0] != null) {
+        throw failure[0];
+      }
+
+      writeSnapshot(newSegment[0], state);
+      deleteBefore(newSegment[0]);
+    }
+  }
+
+  /**
+   * Writes and syncs all pending records, regardless of the fsync policy.
+   *
+   * @throws IOException if the records cannot be written
+   */
+  public void sync() throws IOException {
+    synchronized (syncLock) {
+      synchronized (writeLock) {
+        if (channel != null) {
+          writePending(true);
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops background tasks, detaches from the inventory, and syncs and closes the current segment.
+   *
+   * @throws IOException if pending records cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (checkpointLock) {
+      if (scheduler != null) {
+        scheduler.shutdownNow();
+        scheduler = null;
+      }
+      if (attachedInventory != null) {
+        attachedInventory.removeListener(this);
+        attachedInventory = null;
+      }
+      synchronized (syncLock) {
+        synchronized (writeLock) {
+          if (channel != null) {
+            try {
+              writePending(true);
+            } finally {
+              channel.close();
+              channel = null;
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public void ingredientAdded(Ingredient ingredient) {
+    List<Lot> lots = ingredient.getLots();
+    if (lots.size() == 1) {
+      append(out -> {
+        out.writeByte(RECORD_ADD);
+        writeIngredient(out, ingredient);
+      });
+      return;
+    }
+    append(out -> {
+      out.writeByte(RECORD_ADD_LOTS);
+      out.writeUTF(ingredient.getName());
+      out.writeByte(ingredient.getUnit().ordinal());
+      out.writeInt(lots.size());
+      for (Lot lot : lots) {
+        out.writeLong(lot.getBaseQuantity());
+        out.writeLong(lot.getBestBeforeDate().toEpochDay());
+        out.writeDouble(lot.getPricePerUnit());
+      }
+    });
+  }
+
+  @Override
+  public void quantityRemoved(String name, long baseQuantity, Unit unit) {
+    append(out -> {
+      out.writeByte(RECORD_REMOVE);
+      out.writeUTF(name);
+      out.writeByte(unit.ordinal());
+      out.writeLong(baseQuantity);
+    });
+  }
+
+  @Override
+  public void quantitiesRemoved(List<Removal> removals) {
+    if (removals.size() == 1) {
+      Removal removal = removals.get(0);
+      quantityRemoved(removal.name(), removal.baseQuantity(), removal.unit());
+      return;
+    }
+    append(out -> {
+      out.writeByte(RECORD_REMOVE_ALL);
+      out.writeInt(removals.size());
+      for (Removal removal : removals) {
+        out.writeUTF(removal.name());
+        out.writeByte(removal.unit().ordinal());
+        out.writeLong(removal.baseQuantity());
+      }
+    });
+  }
+
+  /**
+   * Serializes one record into the pending buffer and makes it as durable as the policy demands.
+   *
+   * @param writer writes the record payload
+   * @throws UncheckedIOException if the record cannot be written, which aborts the mutation
+   */
+  private void append(RecordWriter writer) {
+    long sequence;
+    try {
+      synchronized (writeLock) {
+        if (channel == null) {
+          throw new IOException("Journal is closed.");
+        }
+        requireHealthy();
+        recordBuffer.reset();
+        writer.write(recordOut);
+        crc.reset();
+        crc.update(recordBuffer.toByteArray());
+        DataOutputStream pendingOut = new DataOutputStream(pending);
+        pendingOut.writeInt(recordBuffer.size());
+        pendingOut.writeInt((int) crc.getValue());
+        recordBuffer.writeTo(pending);
+        sequence = ++appendedCount;
+        if (fsyncPolicy != FsyncPolicy.ALWAYS && pending.size() >= WRITE_THRESHOLD) {
+          writePending(false);
+        }
+      }
+      if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+        awaitDurable(sequence);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write to the inventory journal.", e);
+    }
+  }
+
+  /**
+   * Group commit: returns once the record with the given sequence number has been synced, either
+   * by this thread or by another writer whose sync covered it. If a sync fails, the records it
+   * covered are never reported as synced, so every writer waiting for them fails as well.
+   *
+   * @param sequence the sequence number of the record
+   * @throws IOException if syncing fails, now or in an earlier sync
+   */
+  private void awaitDurable(long sequence) throws IOException {
+    synchronized (syncLock) {
+      if (syncedCount >= sequence) {
+        return;
+      }
+      ByteArrayOutputStream batch;
+      long covered;
+      FileChannel target;
+      synchronized (writeLock) {
+        requireHealthy();
+        batch = pending;
+        pending = new ByteArrayOutputStream();
+        covered = appendedCount;
+        target = channel;
+      }
+      if (target == null) {
+        throw new IOException("Journal is closed.");
+      }
+      try {
+        writeFully(target, batch);
+        target.force(false);
+      } catch (IOException e) {
+        failure = e;
+        throw e;
+      }
+      syncedCount = covered;
+    }
+  }
+
+  /**
+   * Writes the pending buffer to the current segment. Must be called while holding the write lock.
+   *
+   * @param force whether to sync the segment afterwards
+   * @throws IOException if writing fails, now or in an earlier write
+   */
+  private void writePending(boolean force) throws IOException {
+    requireHealthy();
+    try {
+      writeFully(channel, pending);
+      pending.reset();
+      if (force) {
+        channel.force(false);
+        syncedCount = appendedCount;
+      }
+    } catch (IOException e) {
+      failure = e;
+      throw e;
+    }
+  }
+
+  /**
+   * Fails if an earlier write or sync has failed.
+   *
+   * @throws IOException if the journal is unusable
+   */
+  private void requireHealthy() throws IOException {
+    IOException cause = failure;
+    if (cause != null) {
+      throw new IOException("Journal is unusable after an earlier write failed.", cause);
+    }
+  }
+
+  private void syncQuietly() {
+    if (failure != null) {
+      return;
+    }
+    try {
+      sync();
+    } catch (IOException e) {
+      System.err.println("Inventory journal sync failed: " + e.getMessage());
+    }
+  }
+
+  private boolean hasRecordsSinceCheckpoint() {
+    synchronized (writeLock) {
+      return appendedCount != countAtLastCheckpoint;
+    }
+  }
+
+  private void requireRecovered() {
+    if (attachedInventory == null) {
+      throw new IllegalStateException("Journal has not been recovered.");
+    }
+  }
+
+  private ScheduledExecutorService scheduler() {
+    if (scheduler == null) {
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-journal");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return scheduler;
+  }
+
+  // Segment and snapshot files
+
+  /**
+   * Opens a new, empty segment for appending. Must be called while holding the write lock.
+   *
+   * @param id the id of the segment
+   * @throws IOException if the segment cannot be created
+   */
+  private void openSegment(long id) throws IOException {
+    channel = openChannel(segmentPath(id));
+    ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).putInt(SEGMENT_MAGIC).flip();
+    while (header.hasRemaining()) {
+      channel.write(header);
+    }
+    channel.force(true);
+    segmentId = id;
+  }
+
+  /**
+   * Creates a segment file and opens it for writing.
+   *
+   * @param path the segment file; must not exist
+   * @return the open channel
+   * @throws IOException if the file cannot be created
+   */
+  FileChannel openChannel(Path path) throws IOException {
+    return FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Replays the records of one segment into the inventory.
+   * <p>
+   * A record that is cut short or fails its checksum ends the segment. In the newest segment this
+   * is the expected result of a crash during a write, and the segment is truncated to its last
+   * complete record so that it stays valid once newer segments follow it. In any other segment it
+   * means the journal is corrupt.
+   * </p>
+   *
+   * @param path      the segment file
+   * @param inventory the inventory to apply the records to
+   * @param last      whether this is the newest segment
+   * @return true if any record was replayed
+   * @throws IOException if the segment is unreadable, or corrupt before its end
+   */
+  private boolean replaySegment(Path path, FoodInventory inventory, boolean last)
+      throws IOException {
+    boolean replayed = false;
+    long validEnd = 0;
+    boolean torn = false;
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(path)))) {
+      if (readMagic(in) == SEGMENT_MAGIC) {
+        validEnd = Integer.BYTES;
+        CRC32 checksum = new CRC32();
+        while (true) {
+          int first = in.read();
+          if (first < 0) {
+            break;
+          }
+          byte[] payload;
+          try {
+            int length = (first << 24) | (in.readUnsignedByte() << 16)
+                | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+            int expected = in.readInt();
+            payload = length > 0 ? in.readNBytes(length) : new byte[0];
+            checksum.reset();
+            checksum.update(payload);
+            if (length <= 0 || payload.length != length
+                || (int) checksum.getValue() != expected) {
+              torn = true;
+              break;
+            }
+          } catch (EOFException e) {
+            torn = true;
+            break;
+          }
+          applyRecord(new DataInputStream(new ByteArrayInputStream(payload)), inventory);
+          replayed = true;
+          validEnd += 2L * Integer.BYTES + payload.length;
+        }
+      } else {
+        torn = true;
+      }
+    }
+
+    if (torn) {
+      if (!last) {
+        throw new IOException("Corrupt journal segment: " + path);
+      }
+      if (validEnd == 0) {
+        Files.delete(path);
+      } else {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+          file.truncate(validEnd);
+          file.force(true);
+        }
+      }
+    }
+    return replayed;
+  }
+
+  /**
+   * Applies one record to the inventory.
+   *
+   * @param in        the record payload
+   * @param inventory the inventory to apply it to
+   * @throws IOException if the record is malformed
+   */
+  private static void applyRecord(DataInputStream in, FoodInventory inventory)
+      throws IOException {
+    byte type = in.readByte();
+    try {
+      switch (type) {
+        case RECORD_ADD:
+          inventory.addIngredient(readIngredient(in));
+          break;
+        case RECORD_REMOVE:
+          applyRemoval(in, inventory);
+          break;
+        case RECORD_REMOVE_ALL:
+          int count = in.readInt();
+          for (int i = 0; i < count; i++) {
+            applyRemoval(in, inventory);
+          }
+          break;
+        case RECORD_ADD_LOTS:
+          applyLots(in, inventory);
+          break;
+        default:
+          throw new IOException("Unknown journal record type: " + type);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Journal record could not be applied: " + e.getMessage(), e);
+    }
+  }
+
+  private static void applyRemoval(DataInputStream in, FoodInventory inventory)
+      throws IOException {
+    String name = in.readUTF();
+    Unit unit = readUnit(in);
+    long baseQuantity = in.readLong();
+    inventory.removeBaseQuantity(name, baseQuantity, unit);
+  }
+
+  private static void applyLots(DataInputStream in, FoodInventory inventory)
+      throws IOException {
+    String name = in.readUTF();
+    Unit unit = readUnit(in);
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      long baseQuantity = in.readLong();
+      LocalDate bestBeforeDate = LocalDate.ofEpochDay(in.readLong());
+      double pricePerUnit = in.readDouble();
+      inventory.addIngredient(
+          Ingredient.restore(name, baseQuantity, unit, bestBeforeDate, pricePerUnit));
+    }
+  }
+
+  /**
+   * Writes a snapshot file atomically: to a temporary file first, which is synced and then moved
+   * into place.
+   *
+   * @param id    the id of the first segment not covered by the snapshot
+   * @param state the ingredients in the snapshot
+   * @throws IOException if the snapshot cannot be written
+   */
+  private void writeSnapshot(long id, List<Ingredient> state) throws IOException {
+    Path target = snapshotPath(id);
+    Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+    try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(SNAPSHOT_MAGIC);
+      out.writeInt(state.size());
+      for (Ingredient ingredient : state) {
+        writeIngredient(out, ingredient);
+      }
+      out.flush();
+      writeFully(file, bytes);
+      file.force(true);
+    }
+    Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Loads a snapshot into the inventory.
+   *
+   * @param path      the snapshot file
+   * @param inventory the inventory to load into
+   * @throws IOException if the snapshot is unreadable or corrupt
+   */
+  private static void loadSnapshot(Path path, FoodInventory inventory) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(path)))) {
+      if (readMagic(in) != SNAPSHOT_MAGIC) {
+        throw new IOException("Not an inventory snapshot: " + path);
+      }
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        inventory.addIngredient(readIngredient(in));
+      }
+    }
+  }
+
+  /**
+   * Deletes segments and snapshots older than the given id, including stray temporary files.
+   *
+   * @param id the id of the newest snapshot
+   * @throws IOException if the directory cannot be listed
+   */
+  private void deleteBefore(long id) throws IOException {
+    for (Path path : listFiles()) {
+      String fileName = path.getFileName().toString();
+      long fileId = parseId(fileName, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+      if (fileId < 0) {
+        fileId = parseId(fileName, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+      }
+      if ((fileId >= 0 && fileId < id) || fileName.endsWith(SNAPSHOT_SUFFIX + ".tmp")) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  private long newestId(String prefix, String suffix) throws IOException {
+    long newest = -1;
+    for (Path path : listFiles()) {
+      newest = Math.max(newest, parseId(path.getFileName().toString(), prefix, suffix));
+    }
+    return newest;
+  }
+
+  private List<Long> segmentIdsFrom(long firstId) throws IOException {
+    List<Long> ids = new ArrayList<>();
+    for (Path path : listFiles()) {
+      long id = parseId(path.getFileName().toString(), SEGMENT_PREFIX, SEGMENT_SUFFIX);
+      if (id >= firstId) {
+        ids.add(id);
+      }
+    }
+    ids.sort(null);
+    return ids;
+  }
+
+  private List<Path> listFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.toList();
+    }
+  }
+
+  private Path segmentPath(long id) {
+    return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+  }
+
+  private Path snapshotPath(long id) {
+    return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, id, SNAPSHOT_SUFFIX));
+  }
+
+  private static long parseId(String fileName, String prefix, String suffix) {
+    if (!fileName.startsWith(prefix) || !fileName.endsWith(suffix)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(fileName.substring(prefix.length(), fileName.length()
+          - suffix.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  // Binary encoding
+
+  private static void writeIngredient(DataOutputStream out, Ingredient ingredient)
+      throws IOException {
+    out.writeUTF(ingredient.getName());
+    out.writeByte(ingredient.getUnit().ordinal());
+    out.writeLong(ingredient.getBaseQuantity());
+    out.writeLong(ingredient.getBestBeforeDate().toEpochDay());
+    out.writeDouble(ingredient.getPricePerUnit());
+  }
+
+  private static Ingredient readIngredient(DataInputStream in) throws IOException {
+    String name = in.readUTF();
+    Unit unit = readUnit(in);
+    long baseQuantity = in.readLong();
+    LocalDate bestBeforeDate = LocalDate.ofEpochDay(in.readLong());
+    double pricePerUnit = in.readDouble();
+    return Ingredient.restore(name, baseQuantity, unit, bestBeforeDate, pricePerUnit);
+  }
+
+  private static Unit readUnit(DataInputStream in) throws IOException {
+    int ordinal = in.readUnsignedByte();
+    Unit[] units = Unit.values();
+    if (ordinal >= units.length) {
+      throw new IOException("Unknown unit in journal: " + ordinal);
+    }
+    return units[ordinal];
+  }
+
+  private static int readMagic(InputStream in) throws IOException {
+    byte[] magic = in.readNBytes(Integer.BYTES);
+    return magic.length < Integer.BYTES ? 0 : ByteBuffer.wrap(magic).getInt();
+  }
+
+  private static void writeFully(FileChannel target, ByteArrayOutputStream bytes)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+    while (buffer.hasRemaining()) {
+      target.write(buffer);
+    }
+  }
+
+  /**
+   * Writes the payload of one record.
+   */
+  @FunctionalInterface
+  private interface RecordWriter {
+
+    void write(DataOutputStream out) throws IOException;
+  }
+}
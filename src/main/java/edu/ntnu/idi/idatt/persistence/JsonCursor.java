@@ -0,0 +1,164 @@
+package edu.ntnu.idi.idatt.persistence;
+
+/**
+ * A position in a single line of JSON that skips whitespace between tokens.
+ * <p>
+ * This is just enough of a JSON reader for the line-oriented import formats: the caller drives
+ * the structure with {@link #expect(char)} and {@link #peek()}, and values are returned as their
+ * text so they can be converted with the same code as CSV fields. Errors are reported as
+ * {@link IllegalArgumentException} so that a bad line can be skipped and reported.
+ * </p>
+ */
+final class JsonCursor {
+
+  /**
+   * Deepest nesting of objects and arrays that {@link #skipValue(StringBuilder)} accepts, so that
+   * a hostile line fails with an error instead of overflowing the stack.
+   */
+  static final int MAX_DEPTH = 64;
+
+  private final String line;
+  private int position;
+
+  JsonCursor(String line) {
+    this.line = line;
+  }
+
+  /**
+   * Returns the next non-whitespace character without consuming it, or 0 at the end.
+   */
+  char peek() {
+    while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+      position++;
+    }
+    return position < line.length() ? line.charAt(position) : 0;
+  }
+
+  char next() {
+    char c = peek();
+    if (c == 0) {
+      throw new IllegalArgumentException("Unexpected end of JSON object.");
+    }
+    position++;
+    return c;
+  }
+
+  void expect(char expected) {
+    if (next() != expected) {
+      throw new IllegalArgumentException("Expected '" + expected + "' in JSON object.");
+    }
+  }
+
+  /**
+   * Reads a string, number or literal value and returns its text, or null for a JSON null.
+   */
+  String readValue(StringBuilder buffer) {
+    char c = peek();
+    if (c == '"') {
+      return readString(buffer);
+    }
+    if (c == '{' || c == '[') {
+      throw new IllegalArgumentException("Nested JSON values are not supported.");
+    }
+    int start = position;
+    while (position < line.length() && ",}] \t".indexOf(line.charAt(position)) < 0) {
+      position++;
+    }
+    if (start == position) {
+      throw new IllegalArgumentException("Expected a value in JSON object.");
+    }
+    String text = line.substring(start, position);
+    return text.equals("null") ? null : text;
+  }
+
+  /**
+   * Skips a value of any kind, including nested objects and arrays up to {@link #MAX_DEPTH}
+   * levels deep.
+   */
+  void skipValue(StringBuilder buffer) {
+    skipValue(buffer, 1);
+  }
+
+  private void skipValue(StringBuilder buffer, int depth) {
+    char c = peek();
+    if (c != '{' && c != '[') {
+      readValue(buffer);
+      return;
+    }
+    if (depth > MAX_DEPTH) {
+      throw new IllegalArgumentException("JSON is nested too deeply.");
+    }
+    char close = c == '{' ? '}' : ']';
+    position++;
+    if (peek() == close) {
+      position++;
+      return;
+    }
+    while (true) {
+      if (c == '{') {
+        readString(buffer);
+        expect(':');
+      }
+      skipValue(buffer, depth + 1);
+      char separator = next();
+      if (separator == close) {
+        return;
+      }
+      if (separator != ',') {
+        throw new IllegalArgumentException("Expected ',' or '" + close + "' in JSON.");
+      }
+    }
+  }
+
+  String readString(StringBuilder buffer) {
+    expect('"');
+    buffer.setLength(0);
+    while (true) {
+      if (position == line.length()) {
+        throw new IllegalArgumentException("Unterminated JSON string.");
+      }
+      char c = line.charAt(position++);
+      if (c == '"') {
+        return buffer.toString();
+      }
+      if (c == '\\') {
+        if (position == line.length()) {
+          throw new IllegalArgumentException("Unterminated JSON string.");
+        }
+        char escaped = line.charAt(position++);
+        switch (escaped) {
+          case 'n':
+            buffer.append('\n');
+            break;
+          case 't':
+            buffer.append('\t');
+            break;
+          case 'r':
+            buffer.append('\r');
+            break;
+          case 'b':
+            buffer.append('\b');
+            break;
+          case 'f':
+            buffer.append('\f');
+            break;
+          case 'u':
+            if (position + 4 > line.length()) {
+              throw new IllegalArgumentException("Invalid JSON escape.");
+            }
+            try {
+              buffer.append((char) Integer.parseInt(line, position, position + 4, 16));
+            } catch (NumberFormatException e) {
+              throw new IllegalArgumentException("Invalid JSON escape.");
+            }
+            position += 4;
+            break;
+          default:
+            buffer.append(escaped);
+        }
+      } else {
+        buffer.append(c);
+      }
+    }
+  }
+}
@@ -0,0 +1,410 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import edu.ntnu.idi.idatt.model.Cookbook;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk loader of recipes from JSON-lines files, parsing in parallel.
+ *
+ * <p>
+ * Each line holds one recipe as a JSON object:
+ * </p>
+ * <pre>
+ * {"name": "Pancakes", "description": "Fluffy pancakes", "preparationMethod": "Mix and fry.",
+ *  "servings": 4, "ingredients": [{"name": "Flour", "quantity": 200, "unit": "g"}, ...]}
+ * </pre>
+ *
+ * <p>
+ * The file is read sequentially in chunks of lines, and each chunk is parsed into {@link Recipe}
+ * objects by a task in a {@link ForkJoinPool}. Only a few chunks are in flight at a time, so
+ * reading never runs far ahead of parsing. Duplicate names within the file, compared as
+ * {@link Cookbook#normalizeName(String)} compares them, are detected while parsing through a
+ * concurrent map from name to the first line that used it; the recipe on the earliest line wins,
+ * regardless of which task saw it first. When every line is parsed the
+ * recipes are committed with {@link Cookbook#addRecipes(java.util.Collection)} in one pass, so the
+ * cookbook is not touched from more than one thread.
+ * </p>
+ *
+ * <p>
+ * Lines that cannot be parsed, and recipes whose name is a duplicate or already in the cookbook,
+ * are skipped and reported in the returned {@link ImportReport}. Unknown keys are ignored. Row
+ * errors are moved out of each chunk as soon as it is done and only the earliest
+ * {@link IngredientImporter#MAX_REPORTED_ERRORS} are kept, so a file full of bad lines does not
+ * hold an error per line in memory.
+ * </p>
+ */
+public class RecipeLoader {
+
+  /**
+   * Number of lines parsed by one task.
+   */
+  public static final int CHUNK_SIZE = 512;
+
+  private final Cookbook cookbook;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs a loader that parses on the common pool.
+   *
+   * @param cookbook the cookbook to load into; cannot be null
+   * @throws IllegalArgumentException if the cookbook is null
+   */
+  public RecipeLoader(Cookbook cookbook) {
+    this(cookbook, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a loader that parses on the given pool.
+   *
+   * @param cookbook the cookbook to load into; cannot be null
+   * @param pool     the pool to parse on; cannot be null
+   * @throws IllegalArgumentException if any parameter is null
+   */
+  public RecipeLoader(Cookbook cookbook, ForkJoinPool pool) {
+    if (cookbook == null) {
+      throw new IllegalArgumentException("Cookbook cannot be null.");
+    }
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null.");
+    }
+    this.cookbook = cookbook;
+    this.pool = pool;
+  }
+
+  /**
+   * Loads a UTF-8 JSON-lines file.
+   *
+   * @param path the file to load; cannot be null
+   * @return the report of the load
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the path is null
+   */
+  public ImportReport load(Path path) throws IOException {
+    if (path == null) {
+      throw new IllegalArgumentException("Path cannot be null.");
+    }
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return load(reader);
+    }
+  }
+
+  /**
+   * Loads every recipe the reader yields.
+   *
+   * @param reader the input; cannot be null, and is not closed
+   * @return the report of the load
+   * @throws IOException              if reading fails or the load is interrupted
+   * @throws IllegalArgumentException if the reader is null
+   */
+  public ImportReport load(BufferedReader reader) throws IOException {
+    if (reader == null) {
+      throw new IllegalArgumentException("Reader cannot be null.");
+    }
+    ConcurrentMap<String, Long> firstLineByName = new ConcurrentHashMap<>();
+    int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+    Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+    List<Chunk> chunks = new ArrayList<>();
+    List<ImportReport.RowError> errors = new ArrayList<>();
+
+    long lineNumber = 0;
+    List<String> lines = new ArrayList<>(CHUNK_SIZE);
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      lines.add(line);
+      if (lines.size() == CHUNK_SIZE) {
+        inFlight.add(submit(lines, lineNumber - CHUNK_SIZE + 1, firstLineByName));
+        lines = new ArrayList<>(CHUNK_SIZE);
+        if (inFlight.size() >= maxInFlight) {
+          chunks.add(collectErrors(await(inFlight.poll()), errors));
+        }
+      }
+    }
+    if (!lines.isEmpty()) {
+      inFlight.add(submit(lines, lineNumber - lines.size() + 1, firstLineByName));
+    }
+    while (!inFlight.isEmpty()) {
+      chunks.add(collectErrors(await(inFlight.poll()), errors));
+    }
+
+    return commit(chunks, firstLineByName, errors);
+  }
+
+  /**
+   * Adds the parsed recipes that won their name to the cookbook and builds the report.
+   */
+  private ImportReport commit(List<Chunk> chunks, ConcurrentMap<String, Long> firstLineByName,
+      List<ImportReport.RowError> errors) {
+    long failed = 0;
+    List<Recipe> recipes = new ArrayList<>();
+    List<Long> recipeLines = new ArrayList<>();
+    for (Chunk chunk : chunks) {
+      failed += chunk.failed;
+      for (int i = 0; i < chunk.recipes.size(); i++) {
+        Recipe recipe = chunk.recipes.get(i);
+        long line = chunk.lines[i];
+        if (firstLineByName.get(key(recipe.getName())) == line) {
+          recipes.add(recipe);
+          recipeLines.add(line);
+        } else {
+          failed++;
+          addError(errors, new ImportReport.RowError(line,
+              "Duplicate recipe in file: " + recipe.getName()));
+        }
+      }
+    }
+
+    List<Recipe> rejected = cookbook.addRecipes(recipes);
+    failed += rejected.size();
+    for (int i = 0, r = 0; i < recipes.size() && r < rejected.size(); i++) {
+      if (recipes.get(i) == rejected.get(r)) {
+        addError(errors, new ImportReport.RowError(recipeLines.get(i),
+            "Recipe already exists in the cookbook: " + rejected.get(r).getName()));
+        r++;
+      }
+    }
+
+    keepFirstErrors(errors);
+    return new ImportReport(recipes.size() - rejected.size(), failed, errors);
+  }
+
+  /**
+   * Moves the parse errors of a finished chunk into the bounded error list.
+   *
+   * @return the chunk, without its errors
+   */
+  private static Chunk collectErrors(Chunk chunk, List<ImportReport.RowError> errors) {
+    for (ImportReport.RowError error : chunk.errors) {
+      addError(errors, error);
+    }
+    chunk.errors.clear();
+    return chunk;
+  }
+
+  /**
+   * Adds an error, dropping all but the earliest reported errors whenever the list has grown to
+   * twice the limit, so memory stays bounded however many lines fail.
+   */
+  private static void addError(List<ImportReport.RowError> errors, ImportReport.RowError error) {
+    errors.add(error);
+    if (errors.size() >= 2 * IngredientImporter.MAX_REPORTED_ERRORS) {
+      keepFirstErrors(errors);
+    }
+  }
+
+  /**
+   * Sorts the errors by line and keeps only the first
+   * {@link IngredientImporter#MAX_REPORTED_ERRORS}.
+   */
+  private static void keepFirstErrors(List<ImportReport.RowError> errors) {
+    errors.sort(Comparator.comparingLong(ImportReport.RowError::line));
+    if (errors.size() > IngredientImporter.MAX_REPORTED_ERRORS) {
+      errors.subList(IngredientImporter.MAX_REPORTED_ERRORS, errors.size()).clear();
+    }
+  }
+
+  private Future<Chunk> submit(List<String> lines, long firstLine,
+      ConcurrentMap<String, Long> firstLineByName) {
+    return pool.submit(() -> parseChunk(lines, firstLine, firstLineByName));
+  }
+
+  private static Chunk await(Future<Chunk> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Recipe loading was interrupted.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Parses one chunk of lines. Runs on a pool thread.
+   */
+  private static Chunk parseChunk(List<String> lines, long firstLine,
+      ConcurrentMap<String, Long> firstLineByName) {
+    Chunk chunk = new Chunk(lines.size());
+    StringBuilder buffer = new StringBuilder();
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i);
+      long lineNumber = firstLine + i;
+      if (line.isBlank()) {
+        continue;
+      }
+      try {
+        Recipe recipe = parseRecipe(line, buffer);
+        firstLineByName.merge(key(recipe.getName()), lineNumber, Math::min);
+        chunk.lines[chunk.recipes.size()] = lineNumber;
+        chunk.recipes.add(recipe);
+      } catch (IllegalArgumentException e) {
+        chunk.failed++;
+        chunk.errors.add(new ImportReport.RowError(lineNumber, e.getMessage()));
+      }
+    }
+    return chunk;
+  }
+
+  private static Recipe parseRecipe(String line, StringBuilder buffer) {
+    JsonCursor cursor = new JsonCursor(line);
+    String name = null;
+    String description = null;
+    String preparationMethod = null;
+    String servings = null;
+    List<String[]> ingredients = new ArrayList<>();
+
+    cursor.expect('{');
+    if (cursor.peek() == '}') {
+      cursor.next();
+    } else {
+      while (true) {
+        String key = cursor.readString(buffer);
+        cursor.expect(':');
+        switch (key) {
+          case "name":
+            name = cursor.readValue(buffer);
+            break;
+          case "description":
+            description = cursor.readValue(buffer);
+            break;
+          case "preparationMethod":
+            preparationMethod = cursor.readValue(buffer);
+            break;
+          case "servings":
+            servings = cursor.readValue(buffer);
+            break;
+          case "ingredients":
+            readIngredients(cursor, buffer, ingredients);
+            break;
+          default:
+            cursor.skipValue(buffer);
+        }
+        if (!nextMember(cursor, '}')) {
+          break;
+        }
+      }
+    }
+    if (cursor.peek() != 0) {
+      throw new IllegalArgumentException("Unexpected text after JSON object.");
+    }
+
+    Recipe recipe = new Recipe(name, description, preparationMethod, parseServings(servings));
+    for (String[] ingredient : ingredients) {
+      recipe.addIngredient(ingredient[0], parseQuantity(ingredient[1]),
+          Unit.parse(ingredient[2]));
+    }
+    return recipe;
+  }
+
+  private static void readIngredients(JsonCursor cursor, StringBuilder buffer,
+      List<String[]> ingredients) {
+    cursor.expect('[');
+    if (cursor.peek() == ']') {
+      cursor.next();
+      return;
+    }
+    do {
+      String[] ingredient = new String[3];
+      cursor.expect('{');
+      if (cursor.peek() == '}') {
+        cursor.next();
+      } else {
+        do {
+          String key = cursor.readString(buffer);
+          cursor.expect(':');
+          switch (key) {
+            case "name":
+              ingredient[0] = cursor.readValue(buffer);
+              break;
+            case "quantity":
+              ingredient[1] = cursor.readValue(buffer);
+              break;
+            case "unit":
+              ingredient[2] = cursor.readValue(buffer);
+              break;
+            default:
+              cursor.skipValue(buffer);
+          }
+        } while (nextMember(cursor, '}'));
+      }
+      ingredients.add(ingredient);
+    } while (nextMember(cursor, ']'));
+  }
+
+  /**
+   * Consumes the separator after a member or element.
+   *
+   * @return true if another member follows, false if the container was closed
+   */
+  private static boolean nextMember(JsonCursor cursor, char close) {
+    char c = cursor.next();
+    if (c == close) {
+      return false;
+    }
+    if (c != ',') {
+      throw new IllegalArgumentException("Expected ',' or '" + close + "' in JSON.");
+    }
+    return true;
+  }
+
+  private static int parseServings(String text) {
+    if (text == null) {
+      throw new IllegalArgumentException("Missing field: servings");
+    }
+    try {
+      return Integer.parseInt(text);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid servings: " + text);
+    }
+  }
+
+  private static double parseQuantity(String text) {
+    if (text == null) {
+      throw new IllegalArgumentException("Missing field: quantity");
+    }
+    try {
+      return Double.parseDouble(text);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid quantity: " + text);
+    }
+  }
+
+  private static String key(String name) {
+    return Cookbook.normalizeName(name);
+  }
+
+  /**
+   * The recipes and errors of one chunk, with the line of each recipe.
+   */
+  private static final class Chunk {
+
+    private final List<Recipe> recipes = new ArrayList<>();
+    private final long[] lines;
+    private final List<ImportReport.RowError> errors = new ArrayList<>();
+    private long failed;
+
+    Chunk(int size) {
+      this.lines = new long[size];
+    }
+  }
+}
@@ -2,8 +2,10 @@ package edu.ntnu.idi.idatt.service;
 
 import edu.ntnu.idi.idatt.model.FoodInventory;
 import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Page;
 import edu.ntnu.idi.idatt.model.Unit;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -71,6 +73,27 @@ public class InventoryService {
     return foodInventory.getAllIngredientsSortedByName();
   }
 
+  /**
+   * Gets one page of ingredients sorted by name.
+   *
+   * @param cursor   the cursor of the previous page, or null for the first page
+   * @param pageSize the maximum number of ingredients on the page
+   * @return the page
+   * @throws IllegalArgumentException if the page size is not positive or the cursor is invalid
+   */
+  public Page<Ingredient> getIngredientsPage(String cursor, int pageSize) {
+    return foodInventory.getIngredientsPage(cursor, pageSize);
+  }
+
+  /**
+   * Gets a live view of all ingredients sorted by name, without copying them.
+   *
+   * @return a view of the ingredients in name order
+   */
+  public Collection<Ingredient> viewIngredientsSortedByName() {
+    return foodInventory.viewIngredientsSortedByName();
+  }
+
   /**
    * Gets ingredients that expire before the specified date.
    *
@@ -81,6 +104,26 @@ public class InventoryService {
     return foodInventory.getIngredientsExpiringBefore(date);
   }
 
+  /**
+   * Gets a live view of the ingredients that expire before the specified date, without copying
+   * them.
+   *
+   * @param date the date to compare
+   * @return a view of the ingredients expiring before the specified date
+   */
+  public Collection<Ingredient> viewIngredientsExpiringBefore(LocalDate date) {
+    return foodInventory.viewIngredientsExpiringBefore(date);
+  }
+
+  /**
+   * Gets the total value of the ingredients in the inventory.
+   *
+   * @return the total value in NOK
+   */
+  public double getTotalValue() {
+    return foodInventory.getTotalValue();
+  }
+
   /**
    * Gets the underlying FoodInventory.
    *
@@ -0,0 +1,370 @@
+package edu.ntnu.idi.idatt.service;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.IngredientRequirement;
+import edu.ntnu.idi.idatt.model.Lot;
+import edu.ntnu.idi.idatt.model.MealPlan;
+import edu.ntnu.idi.idatt.model.PlannedMeal;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Plans which recipe to make on each of a number of days so that as much soon-to-expire stock as
+ * possible is used before its best-before date.
+ * <p>
+ * Each day gets at most one batch of one recipe. Stock is planned per {@link Lot}: a lot that
+ * expires within the planning horizon is worth its quantity times its price per unit when a meal
+ * uses it on or before its best-before date; a lot that outlives the horizon is not at risk and is
+ * worth nothing to the plan, but is still consumed. Meals take from the lots of an ingredient
+ * first-expired-first-out, skipping lots that have expired by their day. Recipes compete for the
+ * same stock, and expired stock cannot be used.
+ * </p>
+ *
+ * <p>
+ * The search is a heuristic with a bounded running time. A greedy pass first fills each day with
+ * the meal that rescues the most value given the meals before it. Local search then tries random
+ * changes, such as replacing or dropping the meal of one day or swapping two days, and keeps every
+ * change that does not lower the rescued value or add a meal. Keeping changes that leave the value
+ * unchanged lets the search move a meal to another day and then use the freed day in a later step.
+ * It stops when the time budget is spent, or earlier once it has tried several times as many
+ * changes as a plan has single-step moves without finding a better plan. With a single candidate
+ * recipe or a single day the greedy plan is already as good as the search can make it; the search
+ * is skipped and the greedy plan returned. The stock is copied into flat arrays once per call, so
+ * each evaluation of a candidate plan is a short loop over primitives.
+ * </p>
+ *
+ * <p>
+ * A planner holds no state between calls and may be shared by multiple threads.
+ * </p>
+ */
+public class MealPlanner {
+
+  /**
+   * The time budget used by {@link #MealPlanner()}.
+   */
+  public static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(20);
+
+  private static final long SEED = 42;
+
+  /**
+   * How many times the number of single-step moves a plan has the search may go without finding a
+   * better plan before it stops early.
+   */
+  private static final long STALE_MUTATIONS_PER_MOVE = 4;
+
+  private final long timeBudgetNanos;
+
+  /**
+   * Constructs a MealPlanner with the default time budget.
+   */
+  public MealPlanner() {
+    this(DEFAULT_TIME_BUDGET);
+  }
+
+  /**
+   * Constructs a MealPlanner that spends at most the given time improving each plan.
+   *
+   * @param timeBudget the time budget for local search; must be positive
+   * @throws IllegalArgumentException if the time budget is null or not positive
+   */
+  public MealPlanner(Duration timeBudget) {
+    if (timeBudget == null || timeBudget.isZero() || timeBudget.isNegative()) {
+      throw new IllegalArgumentException("Time budget must be positive.");
+    }
+    this.timeBudgetNanos = timeBudget.toNanos();
+  }
+
+  /**
+   * Plans meals for a number of consecutive days.
+   *
+   * @param recipes   the recipes to choose from; cannot be null
+   * @param inventory the stock to plan with; cannot be null, and is not modified
+   * @param start     the first day of the plan; cannot be null
+   * @param days      the number of days to plan; must be positive
+   * @return the plan
+   * @throws IllegalArgumentException if any parameter is invalid
+   */
+  public MealPlan plan(Collection<Recipe> recipes, FoodInventory inventory, LocalDate start,
+      int days) {
+    if (recipes == null) {
+      throw new IllegalArgumentException("Recipes cannot be null.");
+    }
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    if (start == null) {
+      throw new IllegalArgumentException("Start date cannot be null.");
+    }
+    if (days <= 0) {
+      throw new IllegalArgumentException("Days must be positive.");
+    }
+
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    Problem problem = new Problem(recipes, inventory, start, days);
+    int[] plan = problem.greedy();
+    double value = problem.evaluate(plan);
+
+    if (problem.candidates.size() > 1 && days > 1) {
+      Random random = new Random(SEED);
+      int[] trial = plan.clone();
+      long staleLimit = STALE_MUTATIONS_PER_MOVE * days * (problem.candidates.size() + 1L + days);
+      long stale = 0;
+      while (stale < staleLimit && System.nanoTime() < deadline) {
+        problem.mutate(trial, random);
+        double trialValue = problem.evaluate(trial);
+        int trialMeals = mealCount(trial);
+        int meals = mealCount(plan);
+        if (trialValue > value || trialValue == value && trialMeals < meals) {
+          stale = 0;
+        } else {
+          stale++;
+        }
+        if (trialValue > value || trialValue == value && trialMeals <= meals) {
+          value = trialValue;
+          System.arraycopy(trial, 0, plan, 0, days);
+        } else {
+          System.arraycopy(plan, 0, trial, 0, days);
+        }
+      }
+    }
+
+    List<PlannedMeal> meals = new ArrayList<>();
+    for (int day = 0; day < days; day++) {
+      if (plan[day] >= 0) {
+        meals.add(new PlannedMeal(start.plusDays(day),
+            problem.candidates.get(plan[day]).recipe));
+      }
+    }
+    return new MealPlan(meals, value);
+  }
+
+  private static int mealCount(int[] plan) {
+    int count = 0;
+    for (int meal : plan) {
+      if (meal >= 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * The stock and recipes of one planning call, flattened into arrays with one slot per lot. The
+   * lots of an ingredient occupy consecutive slots in first-expired-first-out order.
+   */
+  private static final class Problem {
+
+    private final int days;
+    private final long[] quantities;
+    private final long[] lastUsableDay;
+    private final double[] rescueValuePerBaseUnit;
+    private final List<Candidate> candidates;
+    private final long[] remaining;
+
+    Problem(Collection<Recipe> recipes, FoodInventory inventory, LocalDate start, int days) {
+      this.days = days;
+      List<Ingredient> stock = inventory.getAllIngredientsSortedByName();
+      long firstDay = start.toEpochDay();
+      long horizonEnd = firstDay + days;
+      List<List<Lot>> lotsByIngredient = new ArrayList<>(stock.size());
+      int slotCount = 0;
+      for (Ingredient ingredient : stock) {
+        List<Lot> lots = ingredient.getLots();
+        lotsByIngredient.add(lots);
+        slotCount += lots.size();
+      }
+
+      Map<Integer, StockedIngredient> stocked = new HashMap<>();
+      quantities = new long[slotCount];
+      lastUsableDay = new long[slotCount];
+      rescueValuePerBaseUnit = new double[slotCount];
+      int slot = 0;
+      for (int i = 0; i < stock.size(); i++) {
+        Ingredient ingredient = stock.get(i);
+        int firstSlot = slot;
+        long total = 0;
+        for (Lot lot : lotsByIngredient.get(i)) {
+          quantities[slot] = lot.getBaseQuantity();
+          lastUsableDay[slot] = lot.getBestBeforeDate().toEpochDay() - firstDay;
+          boolean atRisk = lot.getBestBeforeDate().toEpochDay() < horizonEnd;
+          rescueValuePerBaseUnit[slot] = atRisk
+              ? ingredient.getUnit().fromMicroBaseUnits(1) * lot.getPricePerUnit()
+              : 0;
+          total += lot.getBaseQuantity();
+          slot++;
+        }
+        stocked.put(ingredient.getId(),
+            new StockedIngredient(ingredient.getUnit(), total, firstSlot, slot));
+      }
+      remaining = new long[slotCount];
+
+      candidates = new ArrayList<>();
+      for (Recipe recipe : recipes) {
+        Candidate candidate = Candidate.of(recipe, stocked);
+        if (candidate != null) {
+          candidates.add(candidate);
+        }
+      }
+    }
+
+    /**
+     * Fills each day in turn with the meal that rescues the most value, if any rescues some.
+     */
+    int[] greedy() {
+      int[] plan = new int[days];
+      System.arraycopy(quantities, 0, remaining, 0, quantities.length);
+      for (int day = 0; day < days; day++) {
+        int best = -1;
+        double bestValue = 0;
+        for (int c = 0; c < candidates.size(); c++) {
+          double value = candidates.get(c).value(day, remaining, lastUsableDay,
+              rescueValuePerBaseUnit);
+          if (value > bestValue) {
+            best = c;
+            bestValue = value;
+          }
+        }
+        plan[day] = best;
+        if (best >= 0) {
+          candidates.get(best).consume(day, remaining, lastUsableDay);
+        }
+      }
+      return plan;
+    }
+
+    /**
+     * Returns the rescued value of a plan, or -1 if some meal cannot be made on its day.
+     */
+    double evaluate(int[] plan) {
+      System.arraycopy(quantities, 0, remaining, 0, quantities.length);
+      double total = 0;
+      for (int day = 0; day < days; day++) {
+        if (plan[day] < 0) {
+          continue;
+        }
+        Candidate candidate = candidates.get(plan[day]);
+        double value = candidate.value(day, remaining, lastUsableDay, rescueValuePerBaseUnit);
+        if (value < 0) {
+          return -1;
+        }
+        candidate.consume(day, remaining, lastUsableDay);
+        total += value;
+      }
+      return total;
+    }
+
+    /**
+     * Applies one random change: replace or drop the meal of a day, or swap two days.
+     */
+    void mutate(int[] plan, Random random) {
+      int day = random.nextInt(days);
+      if (days > 1 && random.nextInt(3) == 0) {
+        int other = random.nextInt(days);
+        int meal = plan[day];
+        plan[day] = plan[other];
+        plan[other] = meal;
+      } else {
+        plan[day] = random.nextInt(candidates.size() + 1) - 1;
+      }
+    }
+  }
+
+  /**
+   * The slots of the lots of one stocked ingredient, from {@code firstSlot} inclusive to
+   * {@code endSlot} exclusive.
+   */
+  private record StockedIngredient(Unit unit, long baseQuantity, int firstSlot, int endSlot) {
+  }
+
+  /**
+   * A recipe whose requirements all refer to stocked ingredients in compatible units, with the
+   * requirements resolved to ranges of lot slots.
+   */
+  private static final class Candidate {
+
+    private final Recipe recipe;
+    private final int[] firstSlots;
+    private final int[] endSlots;
+    private final long[] required;
+
+    private Candidate(Recipe recipe, int[] firstSlots, int[] endSlots, long[] required) {
+      this.recipe = recipe;
+      this.firstSlots = firstSlots;
+      this.endSlots = endSlots;
+      this.required = required;
+    }
+
+    /**
+     * Resolves a recipe against the stock.
+     *
+     * @return the candidate, or null if the recipe needs something that is not stocked at all
+     */
+    static Candidate of(Recipe recipe, Map<Integer, StockedIngredient> stocked) {
+      List<IngredientRequirement> requirements =
+          new ArrayList<>(recipe.getIngredients().values());
+      int[] firstSlots = new int[requirements.size()];
+      int[] endSlots = new int[requirements.size()];
+      long[] required = new long[requirements.size()];
+      for (int i = 0; i < requirements.size(); i++) {
+        IngredientRequirement requirement = requirements.get(i);
+        StockedIngredient ingredient = stocked.get(requirement.getIngredientId());
+        if (ingredient == null
+            || !ingredient.unit().isCompatibleWith(requirement.getUnit())
+            || ingredient.baseQuantity() < requirement.getBaseQuantity()) {
+          return null;
+        }
+        firstSlots[i] = ingredient.firstSlot();
+        endSlots[i] = ingredient.endSlot();
+        required[i] = requirement.getBaseQuantity();
+      }
+      return new Candidate(recipe, firstSlots, endSlots, required);
+    }
+
+    /**
+     * Returns the value this meal rescues on the given day, or -1 if it cannot be made.
+     */
+    double value(int day, long[] remaining, long[] lastUsableDay, double[] valuePerBaseUnit) {
+      double value = 0;
+      for (int i = 0; i < required.length; i++) {
+        long needed = required[i];
+        for (int slot = firstSlots[i]; slot < endSlots[i] && needed > 0; slot++) {
+          if (lastUsableDay[slot] >= day) {
+            long used = Math.min(needed, remaining[slot]);
+            value += used * valuePerBaseUnit[slot];
+            needed -= used;
+          }
+        }
+        if (needed > 0) {
+          return -1;
+        }
+      }
+      return value;
+    }
+
+    /**
+     * Takes the meal's requirements from the lots that are still usable on the given day,
+     * first-expired-first-out. Only called after {@link #value} found the meal can be made.
+     */
+    void consume(int day, long[] remaining, long[] lastUsableDay) {
+      for (int i = 0; i < required.length; i++) {
+        long needed = required[i];
+        for (int slot = firstSlots[i]; slot < endSlots[i] && needed > 0; slot++) {
+          if (lastUsableDay[slot] >= day) {
+            long used = Math.min(needed, remaining[slot]);
+            remaining[slot] -= used;
+            needed -= used;
+          }
+        }
+      }
+    }
+  }
+}
@@ -2,8 +2,16 @@ package edu.ntnu.idi.idatt.service;
 
 import edu.ntnu.idi.idatt.model.Cookbook;
 import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.MealPlan;
+import edu.ntnu.idi.idatt.model.Page;
+import edu.ntnu.idi.idatt.model.RankedRecipe;
 import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.RecipeBatches;
+import edu.ntnu.idi.idatt.model.RecipeShortfall;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Service class that provides operations related to recipes and the cookbook.
@@ -23,9 +31,11 @@ import java.util.List;
 public class RecipeService {
 
   private final Cookbook cookbook;
+  private final MealPlanner mealPlanner;
 
   public RecipeService() {
     this.cookbook = new Cookbook();
+    this.mealPlanner = new MealPlanner();
   }
 
   /**
@@ -57,6 +67,27 @@ public class RecipeService {
     return cookbook.getAllRecipes();
   }
 
+  /**
+   * Gets the underlying Cookbook.
+   *
+   * @return the Cookbook instance
+   */
+  public Cookbook getCookbook() {
+    return cookbook;
+  }
+
+  /**
+   * Gets one page of recipes sorted by name.
+   *
+   * @param cursor   the cursor of the previous page, or null for the first page
+   * @param pageSize the maximum number of recipes on the page
+   * @return the page
+   * @throws IllegalArgumentException if the page size is not positive or the cursor is invalid
+   */
+  public Page<Recipe> getRecipesPage(String cursor, int pageSize) {
+    return cookbook.getRecipesPage(cursor, pageSize);
+  }
+
   /**
    * Checks if a recipe can be made with the given inventory.
    *
@@ -78,6 +109,120 @@ public class RecipeService {
     return cookbook.getRecipesCanBeMade(inventory);
   }
 
+  /**
+   * Returns a list of recipes that can be made with the provided inventory, checking large
+   * cookbooks in parallel on the given pool.
+   *
+   * @param inventory the food inventory to check against
+   * @param pool      the pool to run the checks on
+   * @return a list of recipes that can be made, in the same order as the sequential check
+   */
+  public List<Recipe> getRecipesCanBeMade(FoodInventory inventory, ForkJoinPool pool) {
+    return cookbook.getRecipesCanBeMade(inventory, pool);
+  }
+
+  /**
+   * Gets how many whole batches of every recipe can be made with the given inventory.
+   *
+   * @param inventory the food inventory
+   * @return the batches of every recipe, most batches first
+   */
+  public List<RecipeBatches> getMaxBatches(FoodInventory inventory) {
+    return cookbook.getMaxBatches(inventory);
+  }
+
+  /**
+   * Gets what each recipe that cannot be made lacks in the given inventory.
+   *
+   * @param inventory the food inventory
+   * @return the shortfalls of the recipes that cannot be made
+   */
+  public List<RecipeShortfall> getShortfalls(FoodInventory inventory) {
+    return cookbook.getShortfalls(inventory);
+  }
+
+  /**
+   * Gets the recipes that cannot be made but come closest with the given inventory.
+   *
+   * @param inventory the food inventory
+   * @param limit     the maximum number of recipes to return
+   * @return the shortfalls of the closest recipes, closest first
+   */
+  public List<RecipeShortfall> getAlmostMakeableRecipes(FoodInventory inventory, int limit) {
+    return cookbook.getAlmostMakeableRecipes(inventory, limit);
+  }
+
+  /**
+   * Gets the makeable recipes ranked by the value of stock expiring before the given date that
+   * they would use up.
+   *
+   * @param inventory the food inventory
+   * @param date      stock expiring before this date counts
+   * @return the makeable recipes that use expiring stock, most valuable first
+   */
+  public List<RankedRecipe> getRecipesUsingExpiringStock(FoodInventory inventory,
+      LocalDate date) {
+    return cookbook.getRecipesUsingExpiringStock(inventory, date);
+  }
+
+  /**
+   * Plans which recipe to make on each day so that as much expiring stock as possible is used
+   * before it expires.
+   *
+   * @param inventory the food inventory
+   * @param start     the first day of the plan
+   * @param days      the number of days to plan
+   * @return the meal plan
+   */
+  public MealPlan planMeals(FoodInventory inventory, LocalDate start, int days) {
+    return mealPlanner.plan(cookbook.getAllRecipes(), inventory, start, days);
+  }
+
+  /**
+   * Cooks a recipe, deducting all of its ingredients from the inventory in one atomic step.
+   *
+   * @param recipe    the recipe to cook
+   * @param servings  the number of servings to cook; requirements are scaled accordingly
+   * @param inventory the food inventory to deduct from
+   * @return true if the recipe was cooked, false if the inventory was insufficient and nothing
+   *         was deducted
+   * @throws IllegalArgumentException if the recipe or inventory is null, or servings is not
+   *                                  positive
+   */
+  public boolean cookRecipe(Recipe recipe, int servings, FoodInventory inventory) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    return inventory.consumeRecipe(recipe, servings);
+  }
+
+  /**
+   * Cooks several recipes in a single call. Either every recipe is cooked or, if the inventory
+   * cannot cover all of them together, nothing is deducted.
+   *
+   * @param servingsByRecipe the recipes to cook, mapped to the number of servings of each
+   * @param inventory        the food inventory to deduct from
+   * @return true if all recipes were cooked, false if nothing was deducted
+   * @throws IllegalArgumentException if any argument is null or a number of servings is not
+   *                                  positive
+   */
+  public boolean cookRecipes(Map<Recipe, Integer> servingsByRecipe, FoodInventory inventory) {
+    if (inventory == null) {
+      throw new IllegalArgumentException("Inventory cannot be null.");
+    }
+    return inventory.consumeRecipes(servingsByRecipe);
+  }
+
+  /**
+   * Gets recipes that use the given ingredient.
+   *
+   * @param ingredientName the name of the ingredient
+   * @return a list of recipes that require the ingredient
+   */
+  public List<Recipe> getRecipesUsingIngredient(String ingredientName) {
+    return cookbook.getRecipesUsingIngredient(ingredientName);
+  }
+
   /**
    * Populates the cookbook with sample recipes.
    */
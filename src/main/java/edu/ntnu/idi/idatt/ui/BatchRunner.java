@@ -0,0 +1,389 @@
+package edu.ntnu.idi.idatt.ui;
+
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import edu.ntnu.idi.idatt.persistence.ImportReport;
+import edu.ntnu.idi.idatt.persistence.IngredientImporter;
+import edu.ntnu.idi.idatt.persistence.RecipeLoader;
+import edu.ntnu.idi.idatt.service.InventoryService;
+import edu.ntnu.idi.idatt.service.RecipeService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs commands from a script without the menu-driven interface.
+ * <p>
+ * Each input line is one command: a command name followed by its arguments, separated by
+ * whitespace. An argument that contains whitespace is written in double quotes, and a backslash
+ * inside quotes escapes the next character. Blank lines and lines starting with {@code #} are
+ * skipped. The commands call the services directly:
+ * </p>
+ * <pre>
+ * add-ingredient  name quantity unit best-before price
+ * remove          name quantity unit
+ * find-ingredient name
+ * list-ingredients
+ * expiring-before date
+ * add-recipe      name description method servings [ingredient quantity unit]...
+ * find-recipe     name
+ * list-recipes
+ * can-make        recipe
+ * makeable
+ * cook            recipe servings
+ * import          file
+ * load-recipes    file
+ * </pre>
+ *
+ * <p>
+ * Output is tab-separated, one record per line, and the first field names the kind of record:
+ * {@code ingredient}, {@code recipe}, {@code can-make}, {@code row-error} or {@code imported} for
+ * results, then exactly one {@code ok} or {@code error} line per command, so a consumer can pair
+ * output with input. Error lines carry the input line number and the message. Tabs, newlines and
+ * backslashes in fields are escaped as {@code \t}, {@code \n} and {@code \\}. Any runtime
+ * exception from a command fails only that command. Output is buffered and flushed when the script
+ * ends, also when reading the script fails.
+ * </p>
+ */
+public class BatchRunner {
+
+  private final InventoryService inventoryService;
+  private final RecipeService recipeService;
+  private final Writer out;
+  private final List<String> tokens = new ArrayList<>();
+  private final StringBuilder token = new StringBuilder();
+  private final StringBuilder record = new StringBuilder();
+  private char[] chars = new char[256];
+
+  /**
+   * Constructs a BatchRunner.
+   *
+   * @param inventoryService the inventory to run commands against; cannot be null
+   * @param recipeService    the cookbook to run commands against; cannot be null
+   * @param out              where to write results; cannot be null, and should be buffered
+   * @throws IllegalArgumentException if any parameter is null
+   */
+  public BatchRunner(InventoryService inventoryService, RecipeService recipeService, Writer out) {
+    if (inventoryService == null) {
+      throw new IllegalArgumentException("Inventory service cannot be null.");
+    }
+    if (recipeService == null) {
+      throw new IllegalArgumentException("Recipe service cannot be null.");
+    }
+    if (out == null) {
+      throw new IllegalArgumentException("Output cannot be null.");
+    }
+    this.inventoryService = inventoryService;
+    this.recipeService = recipeService;
+    this.out = out;
+  }
+
+  /**
+   * Runs every command in the input and flushes the output.
+   *
+   * @param in the script to run; cannot be null
+   * @return the number of commands that failed
+   * @throws IOException              if reading the script or writing the output fails
+   * @throws IllegalArgumentException if the input is null
+   */
+  public long run(BufferedReader in) throws IOException {
+    if (in == null) {
+      throw new IllegalArgumentException("Input cannot be null.");
+    }
+    long failures = 0;
+    long lineNumber = 0;
+    String line;
+    try {
+      while ((line = in.readLine()) != null) {
+        lineNumber++;
+        try {
+          tokenize(line);
+          if (tokens.isEmpty() || tokens.get(0).startsWith("#")) {
+            continue;
+          }
+          execute();
+          out.write("ok\n");
+        } catch (RuntimeException e) {
+          failures++;
+          record.setLength(0);
+          record.append("error\t").append(lineNumber).append('\t');
+          appendField(String.valueOf(e.getMessage()));
+          writeRecord();
+        }
+      }
+    } finally {
+      out.flush();
+    }
+    return failures;
+  }
+
+  /**
+   * Splits a line into tokens, reusing the token list.
+   *
+   * @param line the line to split
+   * @return the tokens of the line
+   * @throws IllegalArgumentException if a quoted token is not closed
+   */
+  List<String> tokenize(String line) {
+    tokens.clear();
+    int i = 0;
+    int length = line.length();
+    while (i < length) {
+      char c = line.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+        continue;
+      }
+      token.setLength(0);
+      if (c == '"') {
+        i++;
+        while (i < length && line.charAt(i) != '"') {
+          if (line.charAt(i) == '\\' && i + 1 < length) {
+            i++;
+          }
+          token.append(line.charAt(i++));
+        }
+        if (i == length) {
+          throw new IllegalArgumentException("Unterminated quote.");
+        }
+        i++;
+      } else {
+        while (i < length && !Character.isWhitespace(line.charAt(i))) {
+          token.append(line.charAt(i++));
+        }
+      }
+      tokens.add(token.toString());
+    }
+    return tokens;
+  }
+
+  private void execute() throws IOException {
+    String command = tokens.get(0);
+    switch (command) {
+      case "add-ingredient":
+        addIngredient();
+        break;
+      case "remove":
+        removeQuantity();
+        break;
+      case "find-ingredient":
+        expectArguments(1, "find-ingredient name");
+        Ingredient ingredient = inventoryService.findIngredientByName(tokens.get(1));
+        if (ingredient != null) {
+          writeIngredient(ingredient);
+        }
+        break;
+      case "list-ingredients":
+        expectArguments(0, "list-ingredients");
+        for (Ingredient each : inventoryService.viewIngredientsSortedByName()) {
+          writeIngredient(each);
+        }
+        break;
+      case "expiring-before":
+        expectArguments(1, "expiring-before date");
+        LocalDate date = LocalDate.parse(tokens.get(1));
+        for (Ingredient each : inventoryService.getIngredientsExpiringBefore(date)) {
+          writeIngredient(each);
+        }
+        break;
+      case "add-recipe":
+        addRecipe();
+        break;
+      case "find-recipe":
+        expectArguments(1, "find-recipe name");
+        Recipe recipe = recipeService.findRecipeByName(tokens.get(1));
+        if (recipe != null) {
+          writeRecipe(recipe);
+        }
+        break;
+      case "list-recipes":
+        expectArguments(0, "list-recipes");
+        for (Recipe each : recipeService.getAllRecipes()) {
+          writeRecipe(each);
+        }
+        break;
+      case "can-make":
+        checkCanMake();
+        break;
+      case "makeable":
+        expectArguments(0, "makeable");
+        for (Recipe each : recipeService.getRecipesCanBeMade(
+            inventoryService.getFoodInventory())) {
+          writeRecipe(each);
+        }
+        break;
+      case "cook":
+        cook();
+        break;
+      case "import":
+        importFile();
+        break;
+      case "load-recipes":
+        loadRecipes();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown command: " + command);
+    }
+  }
+
+  private void addIngredient() {
+    expectArguments(5, "add-ingredient name quantity unit best-before price");
+    inventoryService.addIngredient(new Ingredient(tokens.get(1), parseDouble(2),
+        Unit.parse(tokens.get(3)), LocalDate.parse(tokens.get(4)), parseDouble(5)));
+  }
+
+  private void removeQuantity() {
+    expectArguments(3, "remove name quantity unit");
+    if (!inventoryService.removeQuantity(tokens.get(1), parseDouble(2),
+        Unit.parse(tokens.get(3)))) {
+      throw new IllegalArgumentException("Ingredient not found in the inventory.");
+    }
+  }
+
+  private void checkCanMake() throws IOException {
+    expectArguments(1, "can-make recipe");
+    Recipe recipe = requireRecipe(tokens.get(1));
+    record.setLength(0);
+    record.append("can-make\t");
+    appendField(recipe.getName());
+    record.append('\t')
+        .append(recipeService.canRecipeBeMade(recipe, inventoryService.getFoodInventory()));
+    writeRecord();
+  }
+
+  private void cook() {
+    expectArguments(2, "cook recipe servings");
+    Recipe recipe = requireRecipe(tokens.get(1));
+    if (!recipeService.cookRecipe(recipe, parseInt(2), inventoryService.getFoodInventory())) {
+      throw new IllegalArgumentException("Not enough ingredients to cook the recipe.");
+    }
+  }
+
+  private void importFile() throws IOException {
+    expectArguments(1, "import file");
+    ImportReport report;
+    try {
+      report = new IngredientImporter(inventoryService.getFoodInventory())
+          .importFile(Path.of(tokens.get(1)));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not read " + tokens.get(1) + ": " + e);
+    }
+    writeReport(report);
+  }
+
+  private void loadRecipes() throws IOException {
+    expectArguments(1, "load-recipes file");
+    ImportReport report;
+    try {
+      report = new RecipeLoader(recipeService.getCookbook()).load(Path.of(tokens.get(1)));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not read " + tokens.get(1) + ": " + e);
+    }
+    writeReport(report);
+  }
+
+  private void writeReport(ImportReport report) throws IOException {
+    for (ImportReport.RowError error : report.errors()) {
+      record.setLength(0);
+      record.append("row-error\t").append(error.line()).append('\t');
+      appendField(String.valueOf(error.message()));
+      writeRecord();
+    }
+    record.setLength(0);
+    record.append("imported\t").append(report.imported()).append('\t').append(report.failed());
+    writeRecord();
+  }
+
+  private void addRecipe() {
+    if (tokens.size() < 5 || (tokens.size() - 5) % 3 != 0) {
+      throw new IllegalArgumentException(
+          "Usage: add-recipe name description method servings [ingredient quantity unit]...");
+    }
+    Recipe recipe = new Recipe(tokens.get(1), tokens.get(2), tokens.get(3), parseInt(4));
+    for (int i = 5; i < tokens.size(); i += 3) {
+      recipe.addIngredient(tokens.get(i), parseDouble(i + 1), Unit.parse(tokens.get(i + 2)));
+    }
+    recipeService.addRecipe(recipe);
+  }
+
+  private Recipe requireRecipe(String name) {
+    Recipe recipe = recipeService.findRecipeByName(name);
+    if (recipe == null) {
+      throw new IllegalArgumentException("Recipe not found in the cookbook.");
+    }
+    return recipe;
+  }
+
+  private void expectArguments(int count, String usage) {
+    if (tokens.size() != count + 1) {
+      throw new IllegalArgumentException("Usage: " + usage);
+    }
+  }
+
+  private double parseDouble(int index) {
+    try {
+      return Double.parseDouble(tokens.get(index));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number: " + tokens.get(index));
+    }
+  }
+
+  private int parseInt(int index) {
+    try {
+      return Integer.parseInt(tokens.get(index));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid integer: " + tokens.get(index));
+    }
+  }
+
+  private void writeIngredient(Ingredient ingredient) throws IOException {
+    record.setLength(0);
+    record.append("ingredient\t");
+    appendField(ingredient.getName());
+    record.append('\t').append(ingredient.getQuantity())
+        .append('\t').append(ingredient.getUnit().getAbbreviation())
+        .append('\t').append(ingredient.getBestBeforeDate())
+        .append('\t').append(ingredient.getPricePerUnit());
+    writeRecord();
+  }
+
+  private void writeRecipe(Recipe recipe) throws IOException {
+    record.setLength(0);
+    record.append("recipe\t");
+    appendField(recipe.getName());
+    record.append('\t').append(recipe.getServings()).append('\t');
+    appendField(recipe.getDescription());
+    writeRecord();
+  }
+
+  private void appendField(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\t') {
+        record.append("\\t");
+      } else if (c == '\n') {
+        record.append("\\n");
+      } else if (c == '\r') {
+        record.append("\\r");
+      } else if (c == '\\') {
+        record.append("\\\\");
+      } else {
+        record.append(c);
+      }
+    }
+  }
+
+  private void writeRecord() throws IOException {
+    record.append('\n');
+    if (chars.length < record.length()) {
+      chars = new char[Math.max(record.length(), chars.length * 2)];
+    }
+    record.getChars(0, record.length(), chars, 0);
+    out.write(chars, 0, record.length());
+  }
+}
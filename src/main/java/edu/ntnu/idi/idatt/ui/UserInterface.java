@@ -2,15 +2,28 @@ package edu.ntnu.idi.idatt.ui;
 
 import edu.ntnu.idi.idatt.model.Ingredient;
 import edu.ntnu.idi.idatt.model.IngredientRequirement;
+import edu.ntnu.idi.idatt.model.Page;
 import edu.ntnu.idi.idatt.model.Recipe;
 import edu.ntnu.idi.idatt.model.Unit;
+import edu.ntnu.idi.idatt.persistence.InventoryJournal;
 import edu.ntnu.idi.idatt.service.InventoryService;
 import edu.ntnu.idi.idatt.service.RecipeService;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Function;
 
 /**
  * Handles user interactions and provides a text-based user interface for the application.
@@ -18,12 +31,31 @@ import java.util.Scanner;
  * This class manages the input and output operations with the user, allowing them to interact with
  * the food inventory and cookbook system.
  * </p>
+ *
+ * <p>
+ * Output goes through one buffered writer that is flushed only before the user is asked for
+ * input, so a long listing costs a few large writes instead of one per line. Listings are shown a
+ * page at a time straight from the underlying collections, so the first page appears at once and
+ * nothing is copied to render them.
+ * </p>
  */
 public class UserInterface {
 
   private InventoryService inventoryService;
   private RecipeService recipeService;
   private Scanner scanner;
+  private PrintWriter out;
+  private InventoryJournal journal;
+
+  // Persistence settings; the data directory can be overridden with -Dfoodwaste.dataDir=<path>
+  private static final String DATA_DIRECTORY_PROPERTY = "foodwaste.dataDir";
+  private static final String DEFAULT_DATA_DIRECTORY = "data";
+  private static final Duration JOURNAL_SYNC_INTERVAL = Duration.ofMillis(100);
+  private static final Duration CHECKPOINT_INTERVAL = Duration.ofMinutes(5);
+
+  // Output settings
+  private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+  private static final int PAGE_SIZE = 20;
 
   // Menu option constants
   private static final String OPTION_ADD_INGREDIENT = "1";
@@ -42,68 +74,123 @@ public class UserInterface {
    * Initializes the user interface.
    * <p>
    * This method sets up any necessary data structures or variables before the user interface starts
-   * interacting with the user.
+   * interacting with the user. The inventory is restored from the journal in the data directory;
+   * sample ingredients are only added when there is no saved inventory.
    * </p>
    */
   public void init() {
     inventoryService = new InventoryService();
     recipeService = new RecipeService();
     scanner = new Scanner(System.in);
-    inventoryService.populateSampleIngredients();
+    out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+        new FileOutputStream(FileDescriptor.out), System.out.charset()), OUTPUT_BUFFER_SIZE));
+    if (!openJournal()) {
+      inventoryService.populateSampleIngredients();
+    }
     recipeService.populateSampleRecipes();
   }
 
+  /**
+   * Restores the inventory from the journal and starts journaling changes to it.
+   *
+   * @return true if a saved inventory was restored, false otherwise
+   */
+  private boolean openJournal() {
+    Path dataDirectory = Path.of(
+        System.getProperty(DATA_DIRECTORY_PROPERTY, DEFAULT_DATA_DIRECTORY));
+    journal = new InventoryJournal(dataDirectory, InventoryJournal.FsyncPolicy.INTERVAL,
+        JOURNAL_SYNC_INTERVAL);
+    try {
+      boolean restored = journal.recover(inventoryService.getFoodInventory());
+      journal.startCheckpointing(CHECKPOINT_INTERVAL);
+      return restored;
+    } catch (IOException e) {
+      out.println("Could not open the inventory journal: " + e.getMessage());
+      out.println("Changes to the inventory will not be saved.");
+      journal = null;
+      inventoryService = new InventoryService();
+      return false;
+    }
+  }
+
+  /**
+   * Writes a final checkpoint and closes the journal. The journal is closed even if the checkpoint
+   * fails, so that its pending records are still synced.
+   */
+  private void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.checkpoint();
+    } catch (IOException e) {
+      out.println("Error saving the inventory: " + e.getMessage());
+    }
+    try {
+      journal.close();
+    } catch (IOException e) {
+      out.println("Error saving the inventory: " + e.getMessage());
+    }
+    journal = null;
+  }
+
   /**
    * Starts the user interface and handles the main menu loop.
    * <p>
    * This method displays the menu options to the user, processes their input, and calls the
-   * appropriate methods based on the user's choices.
+   * appropriate methods based on the user's choices. The journal is checkpointed and closed, and
+   * the output flushed, however the loop ends, including when the input runs out.
    * </p>
    */
   public void start() {
-    boolean running = true;
-
-    while (running) {
-      displayMainMenu();
-      String choice = scanner.nextLine().trim();
-
-      switch (choice) {
-        case OPTION_ADD_INGREDIENT:
-          addNewIngredient();
-          break;
-        case OPTION_LIST_INGREDIENTS:
-          listAllIngredients();
-          break;
-        case OPTION_FIND_INGREDIENT:
-          findIngredientByName();
-          break;
-        case OPTION_REMOVE_INGREDIENT_QUANTITY:
-          removeQuantityFromIngredient();
-          break;
-        case OPTION_LIST_INGREDIENTS_EXPIRING:
-          listIngredientsExpiringBeforeDate();
-          break;
-        case OPTION_ADD_RECIPE:
-          addNewRecipe();
-          break;
-        case OPTION_LIST_RECIPES:
-          listAllRecipes();
-          break;
-        case OPTION_FIND_RECIPE:
-          findRecipeByName();
-          break;
-        case OPTION_CHECK_RECIPE_CAN_BE_MADE:
-          checkIfRecipeCanBeMade();
-          break;
-        case OPTION_GET_RECIPES_CAN_BE_MADE:
-          getRecipesCanBeMade();
-          break;
-        case OPTION_EXIT:
-          running = confirmExit();
-          break;
-        default:
-          System.out.println("Invalid option. Please try again.");
+    try {
+      boolean running = true;
+
+      while (running) {
+        displayMainMenu();
+        String choice = readLine().trim();
+
+        switch (choice) {
+          case OPTION_ADD_INGREDIENT:
+            addNewIngredient();
+            break;
+          case OPTION_LIST_INGREDIENTS:
+            listAllIngredients();
+            break;
+          case OPTION_FIND_INGREDIENT:
+            findIngredientByName();
+            break;
+          case OPTION_REMOVE_INGREDIENT_QUANTITY:
+            removeQuantityFromIngredient();
+            break;
+          case OPTION_LIST_INGREDIENTS_EXPIRING:
+            listIngredientsExpiringBeforeDate();
+            break;
+          case OPTION_ADD_RECIPE:
+            addNewRecipe();
+            break;
+          case OPTION_LIST_RECIPES:
+            listAllRecipes();
+            break;
+          case OPTION_FIND_RECIPE:
+            findRecipeByName();
+            break;
+          case OPTION_CHECK_RECIPE_CAN_BE_MADE:
+            checkIfRecipeCanBeMade();
+            break;
+          case OPTION_GET_RECIPES_CAN_BE_MADE:
+            getRecipesCanBeMade();
+            break;
+          case OPTION_EXIT:
+            running = confirmExit();
+            break;
+          default:
+            out.println("Invalid option. Please try again.");
+        }
       }
+    } finally {
+      closeJournal();
+      out.flush();
     }
   }
 
@@ -111,21 +198,21 @@ public class UserInterface {
    * Displays the main menu options.
    */
   private void displayMainMenu() {
-    System.out.println("\n--- Food Inventory and Cookbook Manager ---");
-    System.out.println(OPTION_ADD_INGREDIENT + ". Add new ingredient");
-    System.out.println(OPTION_LIST_INGREDIENTS + ". List all ingredients");
-    System.out.println(OPTION_FIND_INGREDIENT + ". Find ingredient by name");
-    System.out.println(OPTION_REMOVE_INGREDIENT_QUANTITY + ". Remove quantity from ingredient");
-    System.out.println(
+    out.println("\n--- Food Inventory and Cookbook Manager ---");
+    out.println(OPTION_ADD_INGREDIENT + ". Add new ingredient");
+    out.println(OPTION_LIST_INGREDIENTS + ". List all ingredients");
+    out.println(OPTION_FIND_INGREDIENT + ". Find ingredient by name");
+    out.println(OPTION_REMOVE_INGREDIENT_QUANTITY + ". Remove quantity from ingredient");
+    out.println(
         OPTION_LIST_INGREDIENTS_EXPIRING + ". List ingredients expiring before a date");
-    System.out.println(OPTION_ADD_RECIPE + ". Add new recipe");
-    System.out.println(OPTION_LIST_RECIPES + ". List all recipes");
-    System.out.println(OPTION_FIND_RECIPE + ". Find recipe by name");
-    System.out.println(OPTION_CHECK_RECIPE_CAN_BE_MADE + ". Check if a recipe can be made");
-    System.out.println(
+    out.println(OPTION_ADD_RECIPE + ". Add new recipe");
+    out.println(OPTION_LIST_RECIPES + ". List all recipes");
+    out.println(OPTION_FIND_RECIPE + ". Find recipe by name");
+    out.println(OPTION_CHECK_RECIPE_CAN_BE_MADE + ". Check if a recipe can be made");
+    out.println(
         OPTION_GET_RECIPES_CAN_BE_MADE + ". Get recipes that can be made with current inventory");
-    System.out.println(OPTION_EXIT + ". Exit");
-    System.out.print("Choose an option: ");
+    out.println(OPTION_EXIT + ". Exit");
+    out.print("Choose an option: ");
   }
 
   /**
@@ -134,13 +221,13 @@ public class UserInterface {
    * @return false if the user confirms exit, true otherwise
    */
   private boolean confirmExit() {
-    System.out.print("Are you sure you want to exit? (Y/N): ");
-    String response = scanner.nextLine().trim();
+    out.print("Are you sure you want to exit? (Y/N): ");
+    String response = readLine().trim();
     if (response.equalsIgnoreCase("Y")) {
-      System.out.println("Exiting the application. Goodbye!");
+      out.println("Exiting the application. Goodbye!");
       return false;
     } else {
-      System.out.println("Returning to the main menu.");
+      out.println("Returning to the main menu.");
       return true;
     }
   }
@@ -153,9 +240,9 @@ public class UserInterface {
     if (ingredient != null) {
       try {
         inventoryService.addIngredient(ingredient);
-        System.out.println("Ingredient added to the inventory.");
+        out.println("Ingredient added to the inventory.");
       } catch (IllegalArgumentException e) {
-        System.out.println("Error adding ingredient: " + e.getMessage());
+        out.println("Error adding ingredient: " + e.getMessage());
       }
     }
   }
@@ -164,14 +251,13 @@ public class UserInterface {
    * Lists all ingredients in the food inventory.
    */
   private void listAllIngredients() {
-    List<Ingredient> ingredients = inventoryService.getAllIngredientsSortedByName();
+    Collection<Ingredient> ingredients = inventoryService.viewIngredientsSortedByName();
     if (ingredients.isEmpty()) {
-      System.out.println("No ingredients in the inventory.");
+      out.println("No ingredients in the inventory.");
     } else {
-      System.out.println("\n--- List of Ingredients ---");
-      for (Ingredient ingredient : ingredients) {
-        System.out.println(ingredient);
-      }
+      out.println("\n--- List of Ingredients ---");
+      printPaged(ingredients, Ingredient::toString);
+      out.printf("Total value: %.2f NOK%n", inventoryService.getTotalValue());
     }
   }
 
@@ -182,10 +268,10 @@ public class UserInterface {
     String name = readNonEmptyString("Enter the name of the ingredient to find: ");
     Ingredient ingredient = inventoryService.findIngredientByName(name);
     if (ingredient != null) {
-      System.out.println("Ingredient found:");
-      System.out.println(ingredient);
+      out.println("Ingredient found:");
+      out.println(ingredient);
     } else {
-      System.out.println("Ingredient not found in the inventory.");
+      out.println("Ingredient not found in the inventory.");
     }
   }
 
@@ -201,12 +287,12 @@ public class UserInterface {
     try {
       boolean result = inventoryService.removeQuantity(name, quantity, unit);
       if (result) {
-        System.out.println("Quantity removed successfully.");
+        out.println("Quantity removed successfully.");
       } else {
-        System.out.println("Ingredient not found in the inventory.");
+        out.println("Ingredient not found in the inventory.");
       }
     } catch (IllegalArgumentException e) {
-      System.out.println("Error removing quantity: " + e.getMessage());
+      out.println("Error removing quantity: " + e.getMessage());
     }
   }
 
@@ -216,14 +302,13 @@ public class UserInterface {
   private void listIngredientsExpiringBeforeDate() {
     LocalDate date = readDate("Enter a date (YYYY-MM-DD): ");
 
-    List<Ingredient> expiringIngredients = inventoryService.getIngredientsExpiringBefore(date);
+    Collection<Ingredient> expiringIngredients =
+        inventoryService.viewIngredientsExpiringBefore(date);
     if (expiringIngredients.isEmpty()) {
-      System.out.println("No ingredients expiring before " + date + ".");
+      out.println("No ingredients expiring before " + date + ".");
     } else {
-      System.out.println("\n--- Ingredients expiring before " + date + " ---");
-      for (Ingredient ingredient : expiringIngredients) {
-        System.out.println(ingredient);
-      }
+      out.println("\n--- Ingredients expiring before " + date + " ---");
+      printPaged(expiringIngredients, Ingredient::toString);
     }
   }
 
@@ -240,12 +325,12 @@ public class UserInterface {
     try {
       recipe = new Recipe(name, description, preparationMethod, servings);
     } catch (IllegalArgumentException e) {
-      System.out.println("Error creating recipe: " + e.getMessage());
+      out.println("Error creating recipe: " + e.getMessage());
       return;
     }
 
     // Add ingredients
-    System.out.println("Add ingredients to the recipe.");
+    out.println("Add ingredients to the recipe.");
     boolean addingIngredients = true;
     while (addingIngredients) {
       String ingredientName = readString("Enter ingredient name (or 'done' to finish): ");
@@ -254,7 +339,7 @@ public class UserInterface {
         continue;
       }
       if (ingredientName.isEmpty()) {
-        System.out.println("Ingredient name cannot be empty.");
+        out.println("Ingredient name cannot be empty.");
         continue;
       }
 
@@ -263,17 +348,17 @@ public class UserInterface {
 
       try {
         recipe.addIngredient(ingredientName, quantity, unit);
-        System.out.println("Ingredient added to the recipe.");
+        out.println("Ingredient added to the recipe.");
       } catch (IllegalArgumentException e) {
-        System.out.println("Error adding ingredient: " + e.getMessage());
+        out.println("Error adding ingredient: " + e.getMessage());
       }
     }
 
     try {
       recipeService.addRecipe(recipe);
-      System.out.println("Recipe added to the cookbook.");
+      out.println("Recipe added to the cookbook.");
     } catch (IllegalArgumentException e) {
-      System.out.println("Error adding recipe: " + e.getMessage());
+      out.println("Error adding recipe: " + e.getMessage());
     }
   }
 
@@ -281,14 +366,22 @@ public class UserInterface {
    * Lists all recipes in the cookbook.
    */
   private void listAllRecipes() {
-    List<Recipe> recipes = recipeService.getAllRecipes();
-    if (recipes.isEmpty()) {
-      System.out.println("No recipes in the cookbook.");
-    } else {
-      System.out.println("\n--- List of Recipes ---");
-      for (Recipe recipe : recipes) {
-        System.out.println("- " + recipe.getName() + ": " + recipe.getDescription());
+    Page<Recipe> page = recipeService.getRecipesPage(null, PAGE_SIZE);
+    if (page.items().isEmpty()) {
+      out.println("No recipes in the cookbook.");
+      return;
+    }
+    out.println("\n--- List of Recipes ---");
+    int shown = 0;
+    while (true) {
+      for (Recipe recipe : page.items()) {
+        out.println("- " + recipe.getName() + ": " + recipe.getDescription());
       }
+      shown += page.items().size();
+      if (!page.hasNext() || !askForMore(shown)) {
+        break;
+      }
+      page = recipeService.getRecipesPage(page.nextCursor(), PAGE_SIZE);
     }
   }
 
@@ -301,7 +394,7 @@ public class UserInterface {
     if (recipe != null) {
       displayRecipeDetails(recipe);
     } else {
-      System.out.println("Recipe not found in the cookbook.");
+      out.println("Recipe not found in the cookbook.");
     }
   }
 
@@ -315,14 +408,14 @@ public class UserInterface {
       boolean canBeMade = recipeService.canRecipeBeMade(recipe,
           inventoryService.getFoodInventory());
       if (canBeMade) {
-        System.out.println(
+        out.println(
             "You have all the necessary ingredients to make \"" + recipe.getName() + "\".");
       } else {
-        System.out.println(
+        out.println(
             "You do not have all the necessary ingredients to make \"" + recipe.getName() + "\".");
       }
     } else {
-      System.out.println("Recipe not found in the cookbook.");
+      out.println("Recipe not found in the cookbook.");
     }
   }
 
@@ -333,12 +426,10 @@ public class UserInterface {
     List<Recipe> availableRecipes = recipeService.getRecipesCanBeMade(
         inventoryService.getFoodInventory());
     if (availableRecipes.isEmpty()) {
-      System.out.println("No recipes can be made with the current inventory.");
+      out.println("No recipes can be made with the current inventory.");
     } else {
-      System.out.println("\n--- Recipes that can be made ---");
-      for (Recipe recipe : availableRecipes) {
-        System.out.println("- " + recipe.getName());
-      }
+      out.println("\n--- Recipes that can be made ---");
+      printPaged(availableRecipes, recipe -> "- " + recipe.getName());
     }
   }
 
@@ -356,14 +447,55 @@ public class UserInterface {
 
     try {
       Ingredient ingredient = new Ingredient(name, quantity, unit, bestBeforeDate, pricePerUnit);
-      System.out.println("Ingredient created successfully!");
+      out.println("Ingredient created successfully!");
       return ingredient;
     } catch (IllegalArgumentException e) {
-      System.out.println("Error creating ingredient: " + e.getMessage());
+      out.println("Error creating ingredient: " + e.getMessage());
     }
     return null;
   }
 
+  /**
+   * Prints items a page at a time, asking before each further page. Items are formatted as they
+   * are printed, so only one page is ever held in the output buffer.
+   *
+   * @param items  the items to print
+   * @param format formats one item as a line
+   * @param <T>    the type of the items
+   */
+  private <T> void printPaged(Iterable<T> items, Function<T, String> format) {
+    Iterator<T> iterator = items.iterator();
+    int printed = 0;
+    while (iterator.hasNext()) {
+      if (printed > 0 && printed % PAGE_SIZE == 0 && !askForMore(printed)) {
+        return;
+      }
+      out.println(format.apply(iterator.next()));
+      printed++;
+    }
+  }
+
+  /**
+   * Asks the user whether to show another page.
+   *
+   * @param shown the number of items shown so far
+   * @return true unless the user chose to stop
+   */
+  private boolean askForMore(int shown) {
+    out.print("-- " + shown + " shown. Press Enter for more, or 'q' to stop: ");
+    return !readLine().trim().equalsIgnoreCase("q");
+  }
+
+  /**
+   * Flushes pending output and reads a line from the user.
+   *
+   * @return the line, without the line terminator
+   */
+  private String readLine() {
+    out.flush();
+    return scanner.nextLine();
+  }
+
   /**
    * Reads and validates a non-empty string input from the user.
    *
@@ -373,12 +505,12 @@ public class UserInterface {
   private String readNonEmptyString(String prompt) {
     String input;
     while (true) {
-      System.out.print(prompt);
-      input = scanner.nextLine().trim();
+      out.print(prompt);
+      input = readLine().trim();
       if (!input.isEmpty()) {
         break;
       }
-      System.out.println("Input cannot be empty. Please try again.");
+      out.println("Input cannot be empty. Please try again.");
     }
     return input;
   }
@@ -390,8 +522,8 @@ public class UserInterface {
    * @return the string input
    */
   private String readString(String prompt) {
-    System.out.print(prompt);
-    return scanner.nextLine().trim();
+    out.print(prompt);
+    return readLine().trim();
   }
 
   /**
@@ -403,17 +535,17 @@ public class UserInterface {
   private double readPositiveDouble(String prompt) {
     double value;
     while (true) {
-      System.out.print(prompt);
-      String input = scanner.nextLine().trim();
+      out.print(prompt);
+      String input = readLine().trim();
       try {
         value = Double.parseDouble(input);
         if (value > 0) {
           break;
         } else {
-          System.out.println("Value must be positive.");
+          out.println("Value must be positive.");
         }
       } catch (NumberFormatException e) {
-        System.out.println("Invalid number format. Please enter a valid number.");
+        out.println("Invalid number format. Please enter a valid number.");
       }
     }
     return value;
@@ -428,17 +560,17 @@ public class UserInterface {
   private int readPositiveInt(String prompt) {
     int value;
     while (true) {
-      System.out.print(prompt);
-      String input = scanner.nextLine().trim();
+      out.print(prompt);
+      String input = readLine().trim();
       try {
         value = Integer.parseInt(input);
         if (value > 0) {
           break;
         } else {
-          System.out.println("Value must be a positive integer.");
+          out.println("Value must be a positive integer.");
         }
       } catch (NumberFormatException e) {
-        System.out.println("Invalid number format. Please enter a valid integer.");
+        out.println("Invalid number format. Please enter a valid integer.");
       }
     }
     return value;
@@ -453,13 +585,13 @@ public class UserInterface {
   private LocalDate readDate(String prompt) {
     LocalDate date;
     while (true) {
-      System.out.print(prompt);
-      String dateInput = scanner.nextLine().trim();
+      out.print(prompt);
+      String dateInput = readLine().trim();
       try {
         date = LocalDate.parse(dateInput);
         break;
       } catch (DateTimeParseException e) {
-        System.out.println("Invalid date format. Please use YYYY-MM-DD.");
+        out.println("Invalid date format. Please use YYYY-MM-DD.");
       }
     }
     return date;
@@ -478,7 +610,7 @@ public class UserInterface {
       if (!date.isBefore(LocalDate.now())) {
         break;
       } else {
-        System.out.println("Date cannot be in the past. Please enter a future date.");
+        out.println("Date cannot be in the past. Please enter a future date.");
       }
     }
     return date;
@@ -492,22 +624,22 @@ public class UserInterface {
   private Unit selectUnit() {
     Unit[] units = Unit.values();
     while (true) {
-      System.out.println("Select unit of measurement:");
+      out.println("Select unit of measurement:");
       for (int i = 0; i < units.length; i++) {
-        System.out.println(
+        out.println(
             (i + 1) + ". " + units[i].name() + " (" + units[i].getAbbreviation() + ")");
       }
-      System.out.print("Enter your choice (1-" + units.length + "): ");
-      String unitChoice = scanner.nextLine().trim();
+      out.print("Enter your choice (1-" + units.length + "): ");
+      String unitChoice = readLine().trim();
       try {
         int choice = Integer.parseInt(unitChoice);
         if (choice >= 1 && choice <= units.length) {
           return units[choice - 1];
         } else {
-          System.out.println("Invalid choice. Please select a valid unit.");
+          out.println("Invalid choice. Please select a valid unit.");
         }
       } catch (NumberFormatException e) {
-        System.out.println("Invalid input. Please enter a number.");
+        out.println("Invalid input. Please enter a number.");
       }
     }
   }
@@ -518,15 +650,15 @@ public class UserInterface {
    * @param recipe the recipe to display
    */
   private void displayRecipeDetails(Recipe recipe) {
-    System.out.println("\nRecipe found:");
-    System.out.println("Name: " + recipe.getName());
-    System.out.println("Description: " + recipe.getDescription());
-    System.out.println("Preparation Method: " + recipe.getPreparationMethod());
-    System.out.println("Servings: " + recipe.getServings());
-    System.out.println("Ingredients:");
+    out.println("\nRecipe found:");
+    out.println("Name: " + recipe.getName());
+    out.println("Description: " + recipe.getDescription());
+    out.println("Preparation Method: " + recipe.getPreparationMethod());
+    out.println("Servings: " + recipe.getServings());
+    out.println("Ingredients:");
     for (Map.Entry<String, IngredientRequirement> entry : recipe.getIngredients().entrySet()) {
       IngredientRequirement req = entry.getValue();
-      System.out.println(
+      out.println(
           "- " + entry.getKey() + ": " + req.getQuantity() + " " + req.getUnit().getAbbreviation());
     }
   }
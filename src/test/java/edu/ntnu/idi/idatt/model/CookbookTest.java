@@ -7,7 +7,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -214,4 +216,244 @@ class CookbookTest {
 
     assertEquals("Recipe name cannot be null or empty.", exception.getMessage());
   }
+
+  @DisplayName("Test that recipes using an ingredient are found through the index")
+  @Test
+  void testGetRecipesUsingIngredient() {
+    cookbook.addRecipe(pancakeRecipe);
+    cookbook.addRecipe(omeletteRecipe);
+
+    List<Recipe> eggRecipes = cookbook.getRecipesUsingIngredient("EGGS");
+    List<Recipe> flourRecipes = cookbook.getRecipesUsingIngredient("Flour");
+
+    assertEquals(2, eggRecipes.size());
+    assertTrue(eggRecipes.contains(pancakeRecipe));
+    assertTrue(eggRecipes.contains(omeletteRecipe));
+    assertEquals(List.of(pancakeRecipe), flourRecipes);
+    assertTrue(cookbook.getRecipesUsingIngredient("Butter").isEmpty());
+  }
+
+  @DisplayName("Test that removing a recipe removes it from the ingredient index")
+  @Test
+  void testRemoveRecipeUpdatesIngredientIndex() {
+    cookbook.addRecipe(pancakeRecipe);
+    cookbook.addRecipe(omeletteRecipe);
+
+    cookbook.removeRecipe("Pancakes");
+
+    assertTrue(cookbook.getRecipesUsingIngredient("Flour").isEmpty());
+    assertEquals(List.of(omeletteRecipe), cookbook.getRecipesUsingIngredient("Eggs"));
+  }
+
+  @DisplayName("Test that the parallel check returns the same recipes in the same order")
+  @Test
+  void testGetRecipesCanBeMadeParallelMatchesSequential() {
+    FoodInventory inventory = new FoodInventory();
+    LocalDate bestBefore = LocalDate.now().plusDays(7);
+    inventory.addIngredient(new Ingredient("Flour", 1, Unit.KILOGRAM, bestBefore, 20));
+    inventory.addIngredient(new Ingredient("Eggs", 12, Unit.PIECE, bestBefore, 4));
+    for (int i = 0; i < Cookbook.PARALLEL_THRESHOLD * 2; i++) {
+      Recipe recipe = new Recipe("Recipe " + i, "Generated", "Cook it.", 1);
+      recipe.addIngredient("Flour", 100 + i % 1000, Unit.GRAM);
+      recipe.addIngredient("Eggs", 1 + i % 20, Unit.PIECE);
+      cookbook.addRecipe(recipe);
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      List<Recipe> sequential = cookbook.getRecipesCanBeMade(inventory);
+      List<Recipe> parallel = cookbook.getRecipesCanBeMade(inventory, pool);
+
+      assertFalse(sequential.isEmpty());
+      assertEquals(sequential, parallel);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @DisplayName("Test that the parallel check with a null pool throws an exception")
+  @Test
+  void testGetRecipesCanBeMadeNullPoolThrowsException() {
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> cookbook.getRecipesCanBeMade(new FoodInventory(), (ForkJoinPool) null));
+    assertEquals("Pool cannot be null.", exception.getMessage());
+  }
+
+  @DisplayName("Test that the presence prefilter rejects recipes with a missing ingredient")
+  @Test
+  void testGetRecipesCanBeMadeWithPrefilter() {
+    FoodInventory inventory = new FoodInventory();
+    LocalDate bestBefore = LocalDate.now().plusDays(7);
+    inventory.addIngredient(new Ingredient("Eggs", 12, Unit.PIECE, bestBefore, 4));
+    inventory.addIngredient(new Ingredient("Cheese", 1, Unit.KILOGRAM, bestBefore, 100));
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.LITER, bestBefore, 20));
+    cookbook.addRecipe(pancakeRecipe);
+    cookbook.addRecipe(omeletteRecipe);
+    List<Recipe> checked = new ArrayList<>();
+
+    List<Recipe> makeable = cookbook.getRecipesCanBeMade(inventory, (recipe, stock) -> {
+      boolean present = RecipePrefilter.ingredientPresence().mayBeMade(recipe, stock);
+      if (present) {
+        checked.add(recipe);
+      }
+      return present;
+    });
+
+    assertEquals(List.of(omeletteRecipe), makeable);
+    assertEquals(List.of(omeletteRecipe), checked);
+    assertFalse(inventory.containsAllIngredientsOf(pancakeRecipe));
+    assertEquals(makeable, cookbook.getRecipesCanBeMade(inventory, RecipePrefilter.none()));
+  }
+
+  @DisplayName("Test that the presence bitset follows ingredients being used up")
+  @Test
+  void testContainsAllIngredientsAfterRemoval() {
+    FoodInventory inventory = new FoodInventory();
+    LocalDate bestBefore = LocalDate.now().plusDays(7);
+    inventory.addIngredient(new Ingredient("Eggs", 3, Unit.PIECE, bestBefore, 4));
+    inventory.addIngredient(new Ingredient("Cheese", 50, Unit.GRAM, bestBefore, 100));
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.DECILITER, bestBefore, 20));
+
+    assertTrue(inventory.containsAllIngredientsOf(omeletteRecipe));
+    inventory.removeQuantity("Cheese", 50, Unit.GRAM);
+    assertFalse(inventory.containsAllIngredientsOf(omeletteRecipe));
+  }
+
+  @DisplayName("Test that shortfalls report the missing quantity of each ingredient")
+  @Test
+  void testGetShortfalls() {
+    FoodInventory inventory = new FoodInventory();
+    LocalDate bestBefore = LocalDate.now().plusDays(7);
+    inventory.addIngredient(new Ingredient("Flour", 100, Unit.GRAM, bestBefore, 20));
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.LITER, bestBefore, 20));
+    cookbook.addRecipe(pancakeRecipe);
+
+    List<RecipeShortfall> shortfalls = cookbook.getShortfalls(inventory);
+
+    assertEquals(1, shortfalls.size());
+    RecipeShortfall shortfall = shortfalls.get(0);
+    assertEquals(pancakeRecipe, shortfall.recipe());
+    assertEquals(2, shortfall.missing().size());
+    IngredientShortfall flour = shortfall.missing().stream()
+        .filter(missing -> missing.ingredientName().equals("flour")).findFirst().orElseThrow();
+    assertEquals(100, flour.getMissingQuantity(), 0.0001);
+    assertEquals(1.5, shortfall.totalShortfall(), 0.0001);
+  }
+
+  @DisplayName("Test that the closest recipes are ranked by total shortfall and limited")
+  @Test
+  void testGetAlmostMakeableRecipes() {
+    FoodInventory inventory = new FoodInventory();
+    LocalDate bestBefore = LocalDate.now().plusDays(7);
+    inventory.addIngredient(new Ingredient("Eggs", 2, Unit.PIECE, bestBefore, 4));
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.LITER, bestBefore, 20));
+    Recipe boiledEgg = new Recipe("Boiled egg", "Egg", "Boil it.", 1);
+    boiledEgg.addIngredient("Eggs", 1, Unit.PIECE);
+    cookbook.addRecipe(boiledEgg);
+    cookbook.addRecipe(pancakeRecipe);
+    cookbook.addRecipe(omeletteRecipe);
+
+    List<RecipeShortfall> closest = cookbook.getAlmostMakeableRecipes(inventory, 1);
+
+    assertEquals(1, closest.size());
+    assertEquals(pancakeRecipe, closest.get(0).recipe());
+    assertEquals(1.0, closest.get(0).totalShortfall(), 0.0001);
+    assertEquals(List.of(pancakeRecipe, omeletteRecipe),
+        cookbook.getAlmostMakeableRecipes(inventory, 5).stream()
+            .map(RecipeShortfall::recipe).toList());
+    assertEquals(2, cookbook.getAlmostMakeableRecipes(inventory, Integer.MAX_VALUE).size());
+    assertThrows(IllegalArgumentException.class,
+        () -> cookbook.getAlmostMakeableRecipes(inventory, 0));
+  }
+
+  @DisplayName("Test that makeable recipes are ranked by the value of expiring stock they use")
+  @Test
+  void testGetRecipesUsingExpiringStock() {
+    FoodInventory inventory = new FoodInventory();
+    LocalDate soon = LocalDate.now().plusDays(1);
+    LocalDate later = LocalDate.now().plusDays(30);
+    inventory.addIngredient(new Ingredient("Eggs", 12, Unit.PIECE, soon, 4));
+    inventory.addIngredient(new Ingredient("Cheese", 1, Unit.KILOGRAM, soon, 200));
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.LITER, later, 20));
+    inventory.addIngredient(new Ingredient("Flour", 1, Unit.KILOGRAM, later, 20));
+    Recipe toast = new Recipe("Toast", "Toast", "Toast the bread.", 1);
+    toast.addIngredient("Flour", 100, Unit.GRAM);
+    cookbook.addRecipe(pancakeRecipe);
+    cookbook.addRecipe(omeletteRecipe);
+    cookbook.addRecipe(toast);
+
+    List<RankedRecipe> ranking =
+        cookbook.getRecipesUsingExpiringStock(inventory, LocalDate.now().plusDays(2));
+
+    assertEquals(List.of(omeletteRecipe, pancakeRecipe),
+        ranking.stream().map(RankedRecipe::recipe).toList());
+    assertEquals(3 * 4 + 0.05 * 200, ranking.get(0).score(), 0.0001);
+    assertEquals(2 * 4, ranking.get(1).score(), 0.0001);
+  }
+
+  @DisplayName("Test that only the lots expiring before the date count towards the score")
+  @Test
+  void testGetRecipesUsingExpiringStockCountsExpiringLots() {
+    FoodInventory inventory = new FoodInventory();
+    inventory.addIngredient(
+        new Ingredient("Milk", 2, Unit.LITER, LocalDate.now().plusDays(10), 30));
+    inventory.addIngredient(
+        new Ingredient("Milk", 0.5, Unit.LITER, LocalDate.now().plusDays(1), 20));
+    Recipe milkshake = new Recipe("Milkshake", "Cold", "Blend.", 2);
+    milkshake.addIngredient("Milk", 1, Unit.LITER);
+    cookbook.addRecipe(milkshake);
+
+    List<RankedRecipe> ranking =
+        cookbook.getRecipesUsingExpiringStock(inventory, LocalDate.now().plusDays(2));
+
+    assertEquals(1, ranking.size());
+    assertEquals(0.5 * 20, ranking.get(0).score(), 0.0001);
+  }
+
+  @DisplayName("Test walking the cookbook page by page in name order")
+  @Test
+  void testGetRecipesPage() {
+    cookbook.addRecipe(pancakeRecipe);
+    cookbook.addRecipe(omeletteRecipe);
+    cookbook.addRecipe(new Recipe("apple pie", "Pie", "Bake it.", 8));
+
+    Page<Recipe> first = cookbook.getRecipesPage(null, 2);
+    assertEquals(List.of("apple pie", "Omelette"),
+        first.items().stream().map(Recipe::getName).toList());
+
+    cookbook.removeRecipe("Omelette");
+    Page<Recipe> second = cookbook.getRecipesPage(first.nextCursor(), 2);
+    assertEquals(List.of(pancakeRecipe), second.items());
+    assertFalse(second.hasNext());
+  }
+
+  @DisplayName("Test that ties in ranked results are broken in the same name order as paging")
+  @Test
+  void testRankingTiesFollowPageOrder() {
+    cookbook.addRecipe(new Recipe("Ib", "Dish", "Cook it.", 2));
+    cookbook.addRecipe(new Recipe("\u0131a", "Dish", "Cook it.", 2));
+
+    List<Recipe> paged = cookbook.getRecipesPage(null, 2).items();
+    List<Recipe> ranked = cookbook.getMaxBatches(new FoodInventory()).stream()
+        .map(RecipeBatches::recipe).toList();
+
+    assertEquals("Ib", paged.get(0).getName());
+    assertEquals(paged, ranked);
+  }
+
+  @DisplayName("Test adding recipes in bulk returns duplicates instead of throwing")
+  @Test
+  void testAddRecipes() {
+    cookbook.addRecipe(pancakeRecipe);
+    Recipe otherPancakes = new Recipe("PANCAKES", "Thin", "Fry thinly.", 2);
+    Recipe otherOmelette = new Recipe("omelette", "Plain", "Fry.", 1);
+
+    List<Recipe> duplicates = cookbook.addRecipes(
+        List.of(omeletteRecipe, otherPancakes, otherOmelette));
+
+    assertEquals(List.of(otherPancakes, otherOmelette), duplicates);
+    assertEquals(omeletteRecipe, cookbook.findRecipeByName("Omelette"));
+    assertEquals(List.of(omeletteRecipe, pancakeRecipe), cookbook.getRecipesPage(null, 10).items());
+    assertThrows(IllegalArgumentException.class, () -> cookbook.addRecipes(null));
+  }
 }
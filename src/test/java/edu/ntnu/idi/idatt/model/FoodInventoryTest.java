@@ -1,13 +1,21 @@
 package edu.ntnu.idi.idatt.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -68,6 +76,23 @@ class FoodInventoryTest {
     assertEquals("Insufficient quantity of Sugar to remove the requested amount.", exception.getMessage());
   }
 
+  @DisplayName("Test removing an exact base quantity leaves the exact remainder")
+  @Test
+  void testRemoveBaseQuantity() {
+    inventory.addIngredient(
+        new Ingredient("Sugar", 1.0, Unit.KILOGRAM, LocalDate.now().plusDays(365), 10.0));
+
+    assertTrue(inventory.removeBaseQuantity("Sugar", 333_333, Unit.GRAM));
+
+    assertEquals(1_000_000_000 - 333_333,
+        inventory.findIngredientByName("Sugar").getBaseQuantity());
+    assertFalse(inventory.removeBaseQuantity("Salt", 1, Unit.GRAM));
+    assertThrows(IllegalArgumentException.class,
+        () -> inventory.removeBaseQuantity("Sugar", 0, Unit.GRAM));
+    assertThrows(IllegalArgumentException.class,
+        () -> inventory.removeBaseQuantity("Sugar", 1, null));
+  }
+
   @DisplayName("Test removing a quantity with incompatible units throws an exception")
   @Test
   void testRemoveQuantityIncompatibleUnitsThrowsException() {
@@ -186,4 +211,296 @@ class FoodInventoryTest {
     assertEquals("Eggs", ingredients.get(1).getName());
     assertEquals("Milk", ingredients.get(2).getName());
   }
+
+  @DisplayName("Test expiry query follows merges that move the date earlier and removals")
+  @Test
+  void testGetIngredientsExpiringBeforeTracksMergesAndRemovals() {
+    inventory.addIngredient(
+        new Ingredient("Milk", 1.0, Unit.LITER, LocalDate.now().plusDays(10), 20.0));
+    inventory.addIngredient(
+        new Ingredient("Bread", 1.0, Unit.PIECE, LocalDate.now().plusDays(3), 25.0));
+    inventory.addIngredient(
+        new Ingredient("Cheese", 200, Unit.GRAM, LocalDate.now().plusDays(30), 50.0));
+
+    assertEquals(List.of("Bread"), names(inventory.getIngredientsExpiringBefore(
+        LocalDate.now().plusDays(5))));
+
+    inventory.addIngredient(
+        new Ingredient("Milk", 0.5, Unit.LITER, LocalDate.now().plusDays(1), 20.0));
+
+    assertEquals(List.of("Milk", "Bread"), names(inventory.getIngredientsExpiringBefore(
+        LocalDate.now().plusDays(5))));
+
+    inventory.removeQuantity("Milk", 1.5, Unit.LITER);
+
+    assertEquals(List.of("Bread", "Cheese"), names(inventory.getIngredientsExpiringBefore(
+        LocalDate.now().plusDays(60))));
+  }
+
+  @DisplayName("Test removals consume the earliest lot first and move the expiry date")
+  @Test
+  void testRemoveQuantityConsumesFirstExpiredFirst() {
+    LocalDate early = LocalDate.now().plusDays(2);
+    LocalDate late = LocalDate.now().plusDays(9);
+    inventory.addIngredient(new Ingredient("Milk", 2.0, Unit.LITER, late, 20.0));
+    inventory.addIngredient(new Ingredient("Milk", 1.0, Unit.LITER, early, 26.0));
+
+    Ingredient milk = inventory.findIngredientByName("Milk");
+    assertEquals(2, milk.getLotCount());
+    assertEquals(early, milk.getBestBeforeDate());
+    assertEquals(22.0, milk.getPricePerUnit(), 1e-9);
+
+    inventory.removeQuantity("Milk", 5, Unit.DECILITER);
+    assertEquals(early, milk.getBestBeforeDate());
+    assertEquals(0.5, milk.getLots().get(0).getBaseQuantity() / 1e6, 1e-9);
+
+    inventory.removeQuantity("Milk", 1.0, Unit.LITER);
+    assertEquals(1, milk.getLotCount());
+    assertEquals(late, milk.getBestBeforeDate());
+    assertEquals(1.5, milk.getQuantity(), 1e-9);
+    assertEquals(20.0, milk.getPricePerUnit());
+    assertTrue(inventory.getIngredientsExpiringBefore(late).isEmpty());
+    assertEquals(List.of("Milk"), names(inventory.getIngredientsExpiringBefore(
+        late.plusDays(1))));
+  }
+
+  @DisplayName("Test topping up with the same date and price grows the existing lot")
+  @Test
+  void testMergeSameDateAndPriceKeepsOneLot() {
+    LocalDate date = LocalDate.now().plusDays(5);
+    for (int i = 0; i < 100; i++) {
+      inventory.addIngredient(new Ingredient("Rice", 1, Unit.KILOGRAM, date, 30.0));
+    }
+    inventory.addIngredient(new Ingredient("Rice", 1, Unit.KILOGRAM, date, 35.0));
+
+    Ingredient rice = inventory.findIngredientByName("Rice");
+    assertEquals(2, rice.getLotCount());
+    assertEquals(100.0, rice.getLots().get(0).getBaseQuantity() / 1e9, 1e-9);
+    assertEquals(101.0, rice.getQuantity(), 1e-9);
+
+    inventory.removeQuantity("Rice", 100, Unit.KILOGRAM);
+    inventory.addIngredient(new Ingredient("Rice", 1, Unit.KILOGRAM, date, 30.0));
+    assertEquals(2, rice.getLotCount());
+  }
+
+  @DisplayName("Test merging lots in another unit converts their price to the stored unit")
+  @Test
+  void testMergeConvertsLotPrices() {
+    LocalDate date = LocalDate.now().plusDays(5);
+    inventory.addIngredient(new Ingredient("Flour", 1.0, Unit.KILOGRAM, date, 20.0));
+    inventory.addIngredient(new Ingredient("Flour", 1000, Unit.GRAM, date.plusDays(1), 0.04));
+
+    Ingredient flour = inventory.findIngredientByName("Flour");
+    List<Lot> lots = flour.getLots();
+    assertEquals(2, lots.size());
+    assertEquals(date, lots.get(0).getBestBeforeDate());
+    assertEquals(40.0, lots.get(1).getPricePerUnit(), 1e-9);
+    assertEquals(2.0, flour.getQuantity(), 1e-9);
+    assertEquals(30.0, flour.getPricePerUnit(), 1e-9);
+  }
+
+  @DisplayName("Test the name-ordered view reflects later additions without copying")
+  @Test
+  void testViewIngredientsSortedByNameIsLive() {
+    Collection<Ingredient> view = inventory.viewIngredientsSortedByName();
+    inventory.addIngredient(
+        new Ingredient("milk", 1.0, Unit.LITER, LocalDate.now().plusDays(5), 20.0));
+    inventory.addIngredient(
+        new Ingredient("Apple", 3, Unit.PIECE, LocalDate.now().plusDays(7), 5.0));
+
+    assertEquals(List.of("Apple", "milk"), names(List.copyOf(view)));
+    assertThrows(UnsupportedOperationException.class, view::clear);
+  }
+
+  @DisplayName("Test the expiry view reflects later additions in best-before order")
+  @Test
+  void testViewIngredientsExpiringBeforeIsLive() {
+    Collection<Ingredient> view = inventory.viewIngredientsExpiringBefore(
+        LocalDate.now().plusDays(5));
+    inventory.addIngredient(
+        new Ingredient("Milk", 1.0, Unit.LITER, LocalDate.now().plusDays(4), 20.0));
+    inventory.addIngredient(
+        new Ingredient("Bread", 1.0, Unit.PIECE, LocalDate.now().plusDays(2), 25.0));
+    inventory.addIngredient(
+        new Ingredient("Cheese", 200, Unit.GRAM, LocalDate.now().plusDays(30), 50.0));
+
+    assertEquals(List.of("Bread", "Milk"), names(List.copyOf(view)));
+    assertThrows(UnsupportedOperationException.class, view::clear);
+    assertThrows(IllegalArgumentException.class,
+        () -> inventory.viewIngredientsExpiringBefore(null));
+  }
+
+  @DisplayName("Test adding a batch merges in order and reports incompatible units")
+  @Test
+  void testAddIngredients() {
+    LocalDate date = LocalDate.now().plusDays(5);
+    Map<Integer, String> failures = inventory.addIngredients(List.of(
+        new Ingredient("Milk", 1, Unit.LITER, date, 20.0),
+        new Ingredient("Milk", 500, Unit.GRAM, date, 20.0),
+        new Ingredient("milk", 5, Unit.DECILITER, date, 20.0)));
+
+    assertEquals(Map.of(1, "Units are incompatible for ingredient: Milk"), failures);
+    assertEquals(1.5, inventory.findIngredientByName("Milk").getQuantity(), 1e-9);
+    assertThrows(IllegalArgumentException.class,
+        () -> inventory.addIngredients(Arrays.asList((Ingredient) null)));
+  }
+
+  @DisplayName("Test walking the inventory page by page with cursors")
+  @Test
+  void testGetIngredientsPage() {
+    for (String name : List.of("Eggs", "apple", "Milk", "bread", "Cheese")) {
+      inventory.addIngredient(
+          new Ingredient(name, 1, Unit.PIECE, LocalDate.now().plusDays(5), 10.0));
+    }
+
+    Page<Ingredient> first = inventory.getIngredientsPage(null, 2);
+    assertEquals(List.of("apple", "bread"), names(first.items()));
+    assertTrue(first.hasNext());
+
+    inventory.addIngredient(
+        new Ingredient("Avocado", 1, Unit.PIECE, LocalDate.now().plusDays(5), 10.0));
+    Page<Ingredient> second = inventory.getIngredientsPage(first.nextCursor(), 2);
+    assertEquals(List.of("Cheese", "Eggs"), names(second.items()));
+
+    Page<Ingredient> last = inventory.getIngredientsPage(second.nextCursor(), 2);
+    assertEquals(List.of("Milk"), names(last.items()));
+    assertFalse(last.hasNext());
+    assertNull(last.nextCursor());
+  }
+
+  @DisplayName("Test that invalid page requests are rejected")
+  @Test
+  void testGetIngredientsPageInvalid() {
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> inventory.getIngredientsPage(null, 0));
+    assertEquals("Page size must be positive.", exception.getMessage());
+
+    exception = assertThrows(IllegalArgumentException.class,
+        () -> inventory.getIngredientsPage("not a cursor!", 10));
+    assertEquals("Invalid cursor.", exception.getMessage());
+  }
+
+  @DisplayName("Test concurrent additions and removals on the same ingredient lose no updates")
+  @Test
+  void testConcurrentAddAndRemoveAreAtomic() throws InterruptedException {
+    inventory.addIngredient(
+        new Ingredient("Flour", 1000, Unit.GRAM, LocalDate.now().plusDays(30), 15.0));
+    int threads = 8;
+    int rounds = 2000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int t = 0; t < threads; t++) {
+      executor.execute(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < rounds; i++) {
+            inventory.addIngredient(
+                new Ingredient("Flour", 2, Unit.GRAM, LocalDate.now().plusDays(30), 15.0));
+            inventory.removeQuantity("Flour", 1, Unit.GRAM);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+    assertEquals(1000 + threads * rounds,
+        inventory.findIngredientByName("Flour").getQuantity(), 0.0001);
+    assertEquals((1000 + threads * rounds) * 15.0, inventory.getTotalValue(), 0.01);
+  }
+
+  @DisplayName("Test the running value totals follow additions, merges and removals")
+  @Test
+  void testValueTotals() {
+    LocalDate date = LocalDate.now().plusDays(5);
+    inventory.addIngredient(new Ingredient("Milk", 1.0, Unit.LITER, date, 20.0));
+    inventory.addIngredient(new Ingredient("Milk", 3.0, Unit.LITER, date.plusDays(1), 24.0));
+    inventory.addIngredient(new Ingredient("Flour", 2.0, Unit.KILOGRAM, date, 15.0));
+    inventory.addIngredient(new Ingredient("Eggs", 6, Unit.PIECE, date, 3.0));
+
+    assertEquals(92.0, inventory.getValue(Unit.UnitType.VOLUME), 1e-6);
+    assertEquals(30.0, inventory.getValue(Unit.UnitType.MASS), 1e-6);
+    assertEquals(18.0, inventory.getValue(Unit.UnitType.COUNT), 1e-6);
+    assertEquals(140.0, inventory.getTotalValue(), 1e-6);
+    assertEquals(23.0, inventory.findIngredientByName("Milk").getPricePerUnit(), 1e-9);
+
+    inventory.removeQuantity("Milk", 15, Unit.DECILITER);
+    inventory.removeQuantity("Eggs", 6, Unit.PIECE);
+
+    assertEquals(60.0, inventory.getValue(Unit.UnitType.VOLUME), 1e-6);
+    assertEquals(0.0, inventory.getValue(Unit.UnitType.COUNT));
+    assertEquals(90.0, inventory.getTotalValue(), 1e-6);
+    assertThrows(IllegalArgumentException.class, () -> inventory.getValue(null));
+  }
+
+  @DisplayName("Test repeated fractional deductions are exact and remove the ingredient at zero")
+  @Test
+  void testRepeatedDeductionsReachZeroExactly() {
+    inventory.addIngredient(
+        new Ingredient("Milk", 1.0, Unit.LITER, LocalDate.now().plusDays(5), 20.0));
+
+    for (int i = 0; i < 9; i++) {
+      inventory.removeQuantity("Milk", 1, Unit.DECILITER);
+    }
+    assertEquals(100_000, inventory.findIngredientByName("Milk").getBaseQuantity());
+
+    inventory.removeQuantity("Milk", 0.1, Unit.LITER);
+
+    assertNull(inventory.findIngredientByName("Milk"));
+  }
+
+  @DisplayName("Test cooking a huge number of servings fails instead of overflowing")
+  @Test
+  void testConsumeRecipeWithOverflowingServingsReturnsFalse() {
+    inventory.addIngredient(
+        new Ingredient("Flour", 5.0, Unit.KILOGRAM, LocalDate.now().plusDays(30), 15.0));
+    Recipe bread = new Recipe("Bread", "Loaf", "Bake it.", 1);
+    bread.addIngredient("Flour", 5, Unit.KILOGRAM);
+
+    assertFalse(inventory.consumeRecipe(bread, 2_000_000_000));
+    assertEquals(5.0, inventory.findIngredientByName("Flour").getQuantity(), 1e-9);
+  }
+
+  @DisplayName("Test cooking a recipe deducts all requirements scaled by servings")
+  @Test
+  void testConsumeRecipeDeductsScaledRequirements() {
+    inventory.addIngredient(
+        new Ingredient("Flour", 1.0, Unit.KILOGRAM, LocalDate.now().plusDays(30), 15.0));
+    inventory.addIngredient(
+        new Ingredient("Eggs", 4, Unit.PIECE, LocalDate.now().plusDays(10), 3.0));
+    Recipe pancakes = new Recipe("Pancakes", "Fluffy pancakes", "Mix and fry.", 4);
+    pancakes.addIngredient("Flour", 200, Unit.GRAM);
+    pancakes.addIngredient("Eggs", 2, Unit.PIECE);
+
+    assertTrue(inventory.consumeRecipe(pancakes, 8));
+
+    assertEquals(0.6, inventory.findIngredientByName("Flour").getQuantity(), 0.0001);
+    assertNull(inventory.findIngredientByName("Eggs"));
+  }
+
+  @DisplayName("Test cooking fails without deducting anything when one ingredient is short")
+  @Test
+  void testConsumeRecipesIsAllOrNothing() {
+    inventory.addIngredient(
+        new Ingredient("Flour", 1.0, Unit.KILOGRAM, LocalDate.now().plusDays(30), 15.0));
+    inventory.addIngredient(
+        new Ingredient("Eggs", 3, Unit.PIECE, LocalDate.now().plusDays(10), 3.0));
+    Recipe pancakes = new Recipe("Pancakes", "Fluffy pancakes", "Mix and fry.", 4);
+    pancakes.addIngredient("Flour", 200, Unit.GRAM);
+    pancakes.addIngredient("Eggs", 2, Unit.PIECE);
+    Recipe omelette = new Recipe("Omelette", "Simple omelette", "Beat and fry.", 2);
+    omelette.addIngredient("Eggs", 2, Unit.PIECE);
+
+    assertFalse(inventory.consumeRecipes(Map.of(pancakes, 4, omelette, 2)));
+
+    assertEquals(1.0, inventory.findIngredientByName("Flour").getQuantity(), 0.0001);
+    assertEquals(3, inventory.findIngredientByName("Eggs").getQuantity(), 0.0001);
+  }
+
+  private static List<String> names(List<Ingredient> ingredients) {
+    return ingredients.stream().map(Ingredient::getName).toList();
+  }
 }
@@ -0,0 +1,57 @@
+package edu.ntnu.idi.idatt.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link IngredientDictionary} class.
+ */
+class IngredientDictionaryTest {
+
+  @DisplayName("Test that names differing only in case and whitespace share an id")
+  @Test
+  void testIdOfNormalizesName() {
+    int id = IngredientDictionary.idOf("Dictionary Butter");
+
+    assertEquals(id, IngredientDictionary.idOf("  DICTIONARY butter "));
+    assertEquals(id, IngredientDictionary.lookup("dictionary BUTTER"));
+    assertEquals("dictionary butter", IngredientDictionary.nameOf(id));
+    assertNotEquals(id, IngredientDictionary.idOf("Dictionary Margarine"));
+  }
+
+  @DisplayName("Test that looking up an unknown name does not assign an id")
+  @Test
+  void testLookupUnknownName() {
+    int size = IngredientDictionary.size();
+
+    assertEquals(-1, IngredientDictionary.lookup("Never Seen Dictionary Ingredient"));
+    assertEquals(size, IngredientDictionary.size());
+  }
+
+  @DisplayName("Test that an unknown id throws an exception")
+  @Test
+  void testNameOfUnknownIdThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> IngredientDictionary.nameOf(-1));
+  }
+
+  @DisplayName("Test that recipes and the inventory join on the same id")
+  @Test
+  void testInventoryAndRecipeShareIds() {
+    FoodInventory inventory = new FoodInventory();
+    Ingredient rice = new Ingredient("Dictionary Rice", 1, Unit.KILOGRAM,
+        LocalDate.now().plusDays(30), 25);
+    inventory.addIngredient(rice);
+    Recipe recipe = new Recipe("Rice bowl", "Plain rice", "Boil the rice.", 1);
+    recipe.addIngredient("dictionary rice", 100, Unit.GRAM);
+
+    int id = recipe.getIngredients().get("dictionary rice").getIngredientId();
+    assertEquals(rice.getId(), id);
+    assertSame(rice, inventory.findIngredientById(id));
+  }
+}
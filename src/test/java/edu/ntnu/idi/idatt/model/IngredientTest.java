@@ -3,6 +3,7 @@ package edu.ntnu.idi.idatt.model;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -240,6 +241,23 @@ class IngredientTest {
     assertEquals(20.0, ingredient.getPricePerUnit());
   }
 
+  @DisplayName("Test that a setter collapses the lots into one")
+  @Test
+  void testSetterCollapsesLots() {
+    ingredient.addLotsOf(
+        new Ingredient("Milk", 1.0, Unit.LITER, bestBeforeDate.plusDays(3), 26.0));
+    assertEquals(2, ingredient.getLotCount());
+    assertEquals(22.0, ingredient.getPricePerUnit(), 1e-9);
+
+    ingredient.setPricePerUnit(24.0);
+
+    List<Lot> lots = ingredient.getLots();
+    assertEquals(1, lots.size());
+    assertEquals(3.0, ingredient.getQuantity(), 1e-9);
+    assertEquals(24.0, lots.get(0).getPricePerUnit());
+    assertEquals(bestBeforeDate, lots.get(0).getBestBeforeDate());
+  }
+
   @DisplayName("Test the toString method")
   @Test
   void testToString() {
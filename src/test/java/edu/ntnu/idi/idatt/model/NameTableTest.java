@@ -0,0 +1,101 @@
+package edu.ntnu.idi.idatt.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link NameTable} class.
+ */
+class NameTableTest {
+
+  @DisplayName("Test that lookups ignore case and surrounding whitespace")
+  @Test
+  void testGetIgnoresCaseAndWhitespace() {
+    NameTable<String> table = new NameTable<>();
+    table.putIfAbsent("Pancakes", "pancakes");
+
+    assertEquals("pancakes", table.get("PANCAKES"));
+    assertEquals("pancakes", table.get("  pancakes\t"));
+    assertEquals("pancakes", table.get(new StringBuilder("PanCakes")));
+    assertNull(table.get("Pancake"));
+  }
+
+  @DisplayName("Test that putIfAbsent keeps the first value")
+  @Test
+  void testPutIfAbsentKeepsFirstValue() {
+    NameTable<String> table = new NameTable<>();
+
+    assertNull(table.putIfAbsent("Milk", "first"));
+    assertEquals("first", table.putIfAbsent("MILK", "second"));
+    assertEquals(1, table.size());
+  }
+
+  @DisplayName("Test that removing entries keeps the remaining entries reachable")
+  @Test
+  void testRemoveKeepsOtherEntriesReachable() {
+    NameTable<Integer> table = new NameTable<>();
+    for (int i = 0; i < 1000; i++) {
+      table.putIfAbsent("Name " + i, i);
+    }
+    for (int i = 0; i < 1000; i += 2) {
+      assertEquals(i, table.remove("NAME " + i));
+    }
+
+    assertEquals(500, table.size());
+    for (int i = 0; i < 1000; i++) {
+      if (i % 2 == 0) {
+        assertNull(table.get("name " + i));
+      } else {
+        assertEquals(i, table.get("name " + i));
+      }
+    }
+    assertNull(table.remove("name 0"));
+  }
+
+  @DisplayName("Test that normalize returns the same string when it is already normalized")
+  @Test
+  void testNormalize() {
+    String normalized = "flour";
+
+    assertSame(normalized, NameTable.normalize(normalized));
+    assertEquals("flour", NameTable.normalize("  FLOUR "));
+    assertTrue(NameTable.isBlank(" \t"));
+  }
+
+  @DisplayName("Test that name lookups in the inventory and cookbook do not allocate")
+  @Test
+  void testLookupsDoNotAllocate() {
+    FoodInventory inventory = new FoodInventory();
+    inventory.addIngredient(new Ingredient("Lookup Flour", 1, Unit.KILOGRAM,
+        LocalDate.now().plusDays(30), 20));
+    Cookbook cookbook = new Cookbook();
+    cookbook.addRecipe(new Recipe("Lookup Bread", "Bread", "Bake it.", 1));
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    int found = lookups(inventory, cookbook, 10_000);
+    long before = threads.getCurrentThreadAllocatedBytes();
+    found += lookups(inventory, cookbook, 100_000);
+    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+    assertEquals(330_000, found);
+    assertTrue(allocated < 100_000, "Allocated " + allocated + " bytes for 300000 lookups");
+  }
+
+  private int lookups(FoodInventory inventory, Cookbook cookbook, int count) {
+    int found = 0;
+    for (int i = 0; i < count; i++) {
+      found += inventory.findIngredientByName("LOOKUP flour") != null ? 1 : 0;
+      found += cookbook.findRecipeByName("lookup BREAD") != null ? 1 : 0;
+      found += cookbook.containsRecipe("Lookup Bread") ? 1 : 0;
+    }
+    return found;
+  }
+}
@@ -223,6 +223,19 @@ class RecipeTest {
     assertEquals(Unit.GRAM, requirement.getUnit());
   }
 
+  @DisplayName("Test that replacing a requirement with another unit keeps one compiled entry")
+  @Test
+  void testAddIngredientReplacesCompiledRequirement() {
+    recipe.addIngredient("Sugar", 2, Unit.DECILITER);
+    recipe.addIngredient("Butter", 50, Unit.GRAM);
+    recipe.addIngredient("SUGAR", 0.1, Unit.KILOGRAM);
+
+    assertEquals(2, recipe.getIngredients().size());
+    IngredientRequirement requirement = recipe.getIngredients().get("sugar");
+    assertEquals(Unit.KILOGRAM, requirement.getUnit());
+    assertEquals(0.1, requirement.getQuantity(), 0.0001);
+  }
+
   @DisplayName("Test that setDescription updates the description with a valid input")
   @Test
   void testSetDescriptionValid() {
@@ -361,4 +374,26 @@ class RecipeTest {
     assertEquals(expectedString, recipe.toString());
   }
 
+
+  @DisplayName("Test that max batches is limited by the scarcest ingredient")
+  @Test
+  void testGetMaxBatches() {
+    FoodInventory inventory = new FoodInventory();
+    LocalDate bestBefore = LocalDate.now().plusDays(7);
+    inventory.addIngredient(new Ingredient("Flour", 1, Unit.KILOGRAM, bestBefore, 20));
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.LITER, bestBefore, 20));
+    recipe.addIngredient("Flour", 200, Unit.GRAM);
+    recipe.addIngredient("Milk", 3, Unit.DECILITER);
+
+    assertEquals(3, recipe.getMaxBatches(inventory));
+
+    recipe.addIngredient("Eggs", 2, Unit.PIECE);
+    assertEquals(0, recipe.getMaxBatches(inventory));
+  }
+
+  @DisplayName("Test that a recipe without ingredients has unlimited batches")
+  @Test
+  void testGetMaxBatchesWithoutIngredients() {
+    assertEquals(Long.MAX_VALUE, recipe.getMaxBatches(new FoodInventory()));
+  }
 }
@@ -0,0 +1,131 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.ntnu.idi.idatt.model.Cookbook;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link CookbookSnapshot} class.
+ */
+class CookbookSnapshotTest {
+
+  @TempDir
+  Path directory;
+
+  private Cookbook cookbook;
+  private Path file;
+
+  @BeforeEach
+  void setUp() {
+    cookbook = new Cookbook();
+    Recipe pancakes = new Recipe("Pancakes", "Fluffy pancakes", "Mix and fry.", 4);
+    pancakes.addIngredient("Flour", 200, Unit.GRAM);
+    pancakes.addIngredient("Milk", 3, Unit.DECILITER);
+    pancakes.addIngredient("Eggs", 2, Unit.PIECE);
+    cookbook.addRecipe(pancakes);
+
+    Recipe omelette = new Recipe("Omelette", "Cheese omelette", "Whisk and fry.", 2);
+    omelette.addIngredient("Eggs", 3, Unit.PIECE);
+    omelette.addIngredient("Cheese", 50, Unit.GRAM);
+    cookbook.addRecipe(omelette);
+
+    cookbook.addRecipe(new Recipe("Toast", "Plain toast", "Toast the bread.", 1));
+    file = directory.resolve("cookbook.bin");
+  }
+
+  @DisplayName("Test that a written snapshot finds every recipe by name")
+  @Test
+  void testWriteAndFindRecipe() throws IOException {
+    CookbookSnapshot.write(cookbook, file);
+    CookbookSnapshot snapshot = CookbookSnapshot.open(file);
+
+    assertEquals(3, snapshot.size());
+    for (Recipe recipe : cookbook.getAllRecipes()) {
+      Recipe restored = snapshot.findRecipeByName(recipe.getName().toUpperCase());
+      assertEquals(recipe, restored);
+      assertEquals(recipe.getDescription(), restored.getDescription());
+      assertEquals(recipe.getPreparationMethod(), restored.getPreparationMethod());
+      assertEquals(recipe.getServings(), restored.getServings());
+      assertEquals(recipe.getIngredients(), restored.getIngredients());
+    }
+    assertNull(snapshot.findRecipeByName("Pizza"));
+  }
+
+  @DisplayName("Test that names are matched trimmed and quantities are kept exactly")
+  @Test
+  void testFindTrimmedNameKeepsExactQuantities() throws IOException {
+    Recipe pasta = new Recipe("Pasta", "Pasta", "Boil it.", 3);
+    pasta.addIngredient("Cream", 1.0 / 3, Unit.LITER);
+    cookbook.addRecipe(pasta);
+    CookbookSnapshot.write(cookbook, file);
+
+    Recipe restored = CookbookSnapshot.open(file).findRecipeByName(" pasta ");
+
+    assertEquals(pasta, restored);
+    assertEquals(pasta.getIngredients().get("cream").getBaseQuantity(),
+        restored.getIngredients().get("cream").getBaseQuantity());
+  }
+
+  @DisplayName("Test that a header with overflowing counts is rejected")
+  @Test
+  void testOpenOverflowingHeaderThrowsException() throws IOException {
+    CookbookSnapshot.write(cookbook, file);
+    byte[] bytes = Files.readAllBytes(file);
+    ByteBuffer.wrap(bytes).putInt(3 * Integer.BYTES, Integer.MAX_VALUE / 8);
+    Files.write(file, bytes);
+
+    assertThrows(IOException.class, () -> CookbookSnapshot.open(file));
+  }
+
+  @DisplayName("Test that a recipe is decoded once and then reused")
+  @Test
+  void testRecipeIsDecodedOnce() throws IOException {
+    CookbookSnapshot.write(cookbook, file);
+    CookbookSnapshot snapshot = CookbookSnapshot.open(file);
+
+    assertSame(snapshot.findRecipeByName("Omelette"), snapshot.findRecipeByName("omelette"));
+    assertEquals("Omelette", snapshot.getRecipe(0).getName());
+  }
+
+  @DisplayName("Test converting a snapshot back to a cookbook")
+  @Test
+  void testToCookbook() throws IOException {
+    CookbookSnapshot.write(cookbook, file);
+    Cookbook restored = CookbookSnapshot.open(file).toCookbook();
+
+    assertEquals(3, restored.getAllRecipes().size());
+    assertEquals(2, restored.getRecipesUsingIngredient("Eggs").size());
+  }
+
+  @DisplayName("Test that an empty cookbook can be written and opened")
+  @Test
+  void testEmptyCookbook() throws IOException {
+    CookbookSnapshot.write(new Cookbook(), file);
+    CookbookSnapshot snapshot = CookbookSnapshot.open(file);
+
+    assertEquals(0, snapshot.size());
+    assertNull(snapshot.findRecipeByName("Pancakes"));
+  }
+
+  @DisplayName("Test that opening a file that is not a snapshot throws an exception")
+  @Test
+  void testOpenInvalidFileThrowsException() throws IOException {
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18,
+        19, 20});
+
+    assertThrows(IOException.class, () -> CookbookSnapshot.open(file));
+  }
+}
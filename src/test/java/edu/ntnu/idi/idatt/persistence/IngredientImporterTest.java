@@ -0,0 +1,116 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link IngredientImporter} class.
+ */
+class IngredientImporterTest {
+
+  @TempDir
+  Path directory;
+
+  private FoodInventory inventory;
+  private LocalDate date;
+
+  @BeforeEach
+  void setUp() {
+    inventory = new FoodInventory();
+    date = LocalDate.now().plusDays(10);
+  }
+
+  private ImportReport importText(String text, IngredientImporter.Format format, int batchSize)
+      throws IOException {
+    return new IngredientImporter(inventory, batchSize)
+        .importFrom(new BufferedReader(new StringReader(text)), format);
+  }
+
+  @DisplayName("Test importing CSV with a header, quoted fields and merges across batches")
+  @Test
+  void testImportCsv() throws IOException {
+    ImportReport report = importText("name,quantity,unit,bestBefore,pricePerUnit\n"
+        + "\"Milk, \"\"whole\"\"\",2,L," + date + ",20\n"
+        + "\n"
+        + "Eggs,6,pcs," + date + ",3\n"
+        + "eggs,6,PIECE," + date + ",3\n", IngredientImporter.Format.CSV, 2);
+
+    assertEquals(new ImportReport(3, 0, List.of()), report);
+    assertEquals(2.0, inventory.findIngredientByName("Milk, \"whole\"").getQuantity(), 1e-9);
+    assertEquals(12.0, inventory.findIngredientByName("Eggs").getQuantity(), 1e-9);
+  }
+
+  @DisplayName("Test importing JSON lines with escapes, number strings and unknown keys")
+  @Test
+  void testImportJsonLines() throws IOException {
+    ImportReport report = importText(
+        "{\"name\": \"Cr\\u00e8me fra\\u00eeche\", \"quantity\": 0.2, \"unit\": \"L\", "
+            + "\"bestBefore\": \"" + date + "\", \"pricePerUnit\": \"30\", \"store\": null}\n"
+            + "  {\"unit\":\"g\",\"name\":\"Flour\",\"quantity\":500,\"pricePerUnit\":0.02,"
+            + "\"bestBefore\":\"" + date + "\",\"organic\":true}  \n",
+        IngredientImporter.Format.JSON_LINES, 10);
+
+    assertEquals(2, report.imported());
+    Ingredient creme = inventory.findIngredientByName("Crème fraîche");
+    assertEquals(Unit.LITER, creme.getUnit());
+    assertEquals(30.0, creme.getPricePerUnit(), 1e-9);
+    assertEquals(500.0, inventory.findIngredientByName("Flour").getQuantity(), 1e-9);
+  }
+
+  @DisplayName("Test that bad rows are reported by line and the rest are imported")
+  @Test
+  void testImportReportsRowErrors() throws IOException {
+    ImportReport report = importText("Milk,1,L," + date + ",20\n"
+        + "Bread,one,pcs," + date + ",25\n"
+        + "Milk,100,g," + date + ",20\n"
+        + "Cheese,1,kg\n"
+        + "Butter,1,kg,tomorrow,80\n"
+        + "Sugar,1,kg," + date + ",15\n", IngredientImporter.Format.CSV, 3);
+
+    assertEquals(2, report.imported());
+    assertEquals(4, report.failed());
+    assertEquals(List.of(
+        new ImportReport.RowError(2, "Invalid quantity: one"),
+        new ImportReport.RowError(3, "Units are incompatible for ingredient: Milk"),
+        new ImportReport.RowError(4, "Expected 5 fields.")),
+        report.errors().subList(0, 3));
+    assertEquals(5, report.errors().get(3).line());
+    assertEquals(1.0, inventory.findIngredientByName("Milk").getQuantity(), 1e-9);
+  }
+
+  @DisplayName("Test importing a file picks the format from its extension")
+  @Test
+  void testImportFile() throws IOException {
+    Path file = directory.resolve("delivery.jsonl");
+    Files.writeString(file, "{\"name\":\"Rice\",\"quantity\":1,\"unit\":\"kg\","
+        + "\"bestBefore\":\"" + date + "\",\"pricePerUnit\":25}\n");
+
+    assertEquals(1, new IngredientImporter(inventory).importFile(file).imported());
+    assertThrows(IllegalArgumentException.class,
+        () -> new IngredientImporter(inventory).importFile(directory.resolve("delivery.xml")));
+  }
+
+  @DisplayName("Test that invalid importer arguments are rejected")
+  @Test
+  void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new IngredientImporter(null));
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> new IngredientImporter(inventory, 0));
+    assertEquals("Batch size must be positive.", exception.getMessage());
+  }
+}
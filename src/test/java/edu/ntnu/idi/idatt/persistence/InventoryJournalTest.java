@@ -0,0 +1,400 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import edu.ntnu.idi.idatt.persistence.InventoryJournal.FsyncPolicy;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link InventoryJournal} class.
+ */
+class InventoryJournalTest {
+
+  @TempDir
+  Path directory;
+
+  private InventoryJournal openJournal(FoodInventory inventory) throws IOException {
+    InventoryJournal journal = new InventoryJournal(directory, FsyncPolicy.ALWAYS,
+        Duration.ofMillis(10));
+    journal.recover(inventory);
+    return journal;
+  }
+
+  private FoodInventory recover() throws IOException {
+    FoodInventory inventory = new FoodInventory();
+    openJournal(inventory).close();
+    return inventory;
+  }
+
+  @DisplayName("Test that mutations are replayed into a new inventory after a restart")
+  @Test
+  void testRecoverReplaysMutations() throws IOException {
+    FoodInventory inventory = new FoodInventory();
+    InventoryJournal journal = openJournal(inventory);
+    inventory.addIngredient(
+        new Ingredient("Milk", 2.0, Unit.LITER, LocalDate.now().plusDays(5), 20.0));
+    inventory.addIngredient(
+        new Ingredient("Eggs", 12, Unit.PIECE, LocalDate.now().plusDays(10), 3.0));
+    inventory.addIngredient(
+        new Ingredient("Milk", 5, Unit.DECILITER, LocalDate.now().plusDays(2), 22.0));
+    inventory.removeQuantity("Eggs", 12, Unit.PIECE);
+    Recipe pancakes = new Recipe("Pancakes", "Fluffy pancakes", "Mix and fry.", 4);
+    pancakes.addIngredient("Milk", 3, Unit.DECILITER);
+    assertTrue(inventory.consumeRecipe(pancakes, 4));
+    journal.close();
+
+    FoodInventory restored = recover();
+    Ingredient milk = restored.findIngredientByName("Milk");
+    assertNotNull(milk);
+    assertEquals(2.2, milk.getQuantity(), 0.0001);
+    assertEquals(LocalDate.now().plusDays(2), milk.getBestBeforeDate());
+    assertNull(restored.findIngredientByName("Eggs"));
+  }
+
+  @DisplayName("Test that a checkpoint compacts the journal and recovery replays only the tail")
+  @Test
+  void testCheckpointCompactsJournal() throws IOException {
+    FoodInventory inventory = new FoodInventory();
+    try (InventoryJournal journal = openJournal(inventory)) {
+      inventory.addIngredient(
+          new Ingredient("Flour", 1.0, Unit.KILOGRAM, LocalDate.now().plusDays(30), 15.0));
+      journal.checkpoint();
+      inventory.removeQuantity("Flour", 250, Unit.GRAM);
+    }
+
+    assertEquals(1, countFiles("snapshot-"));
+    assertEquals(1, countFiles("journal-"));
+
+    FoodInventory restored = recover();
+    assertEquals(0.75, restored.findIngredientByName("Flour").getQuantity(), 0.0001);
+  }
+
+  @DisplayName("Test that recovery from a checkpoint keeps the lots of an ingredient")
+  @Test
+  void testCheckpointPreservesLots() throws IOException {
+    FoodInventory inventory = new FoodInventory();
+    try (InventoryJournal journal = openJournal(inventory)) {
+      inventory.addIngredient(
+          new Ingredient("Milk", 1.0, Unit.LITER, LocalDate.now().plusDays(9), 20.0));
+      inventory.addIngredient(
+          new Ingredient("Milk", 1.0, Unit.LITER, LocalDate.now().plusDays(2), 30.0));
+      journal.checkpoint();
+      inventory.removeQuantity("Milk", 5, Unit.DECILITER);
+    }
+
+    FoodInventory restored = recover();
+    Ingredient milk = restored.findIngredientByName("Milk");
+    assertEquals(2, milk.getLotCount());
+    assertEquals(1.5, milk.getQuantity(), 0.0001);
+    assertEquals(LocalDate.now().plusDays(2), milk.getBestBeforeDate());
+    assertEquals(500_000, milk.getLots().get(0).getBaseQuantity());
+    assertEquals(30.0, milk.getLots().get(0).getPricePerUnit(), 0.0001);
+  }
+
+  @DisplayName("Test that a torn record at the end of the journal is ignored")
+  @Test
+  void testRecoverIgnoresTornTail() throws IOException {
+    FoodInventory inventory = new FoodInventory();
+    InventoryJournal journal = openJournal(inventory);
+    inventory.addIngredient(
+        new Ingredient("Sugar", 500, Unit.GRAM, LocalDate.now().plusDays(365), 10.0));
+    journal.close();
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.filter(p -> p.getFileName().toString().startsWith("journal-"))
+          .findFirst().orElseThrow();
+    }
+    Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+    FoodInventory restored = recover();
+    assertEquals(500, restored.findIngredientByName("Sugar").getQuantity(), 0.0001);
+    FoodInventory restoredAgain = recover();
+    assertEquals(500, restoredAgain.findIngredientByName("Sugar").getQuantity(), 0.0001);
+  }
+
+  @DisplayName("Test that the deductions of a cooked recipe are recovered together or not at all")
+  @Test
+  void testRecipeDeductionsShareOneRecord() throws IOException {
+    FoodInventory inventory = new FoodInventory();
+    InventoryJournal journal = openJournal(inventory);
+    inventory.addIngredient(
+        new Ingredient("Flour", 1.0, Unit.KILOGRAM, LocalDate.now().plusDays(30), 15.0));
+    inventory.addIngredient(
+        new Ingredient("Eggs", 6, Unit.PIECE, LocalDate.now().plusDays(10), 3.0));
+    Recipe pancakes = new Recipe("Pancakes", "Fluffy pancakes", "Mix and fry.", 4);
+    pancakes.addIngredient("Flour", 200, Unit.GRAM);
+    pancakes.addIngredient("Eggs", 2, Unit.PIECE);
+    assertTrue(inventory.consumeRecipe(pancakes, 4));
+    journal.close();
+
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.filter(p -> p.getFileName().toString().startsWith("journal-"))
+          .findFirst().orElseThrow();
+    }
+    try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      file.truncate(file.size() - 1);
+    }
+
+    FoodInventory restored = recover();
+    assertEquals(1.0, restored.findIngredientByName("Flour").getQuantity(), 0.0001);
+    assertEquals(6, restored.findIngredientByName("Eggs").getQuantity(), 0.0001);
+  }
+
+  @DisplayName("Test that the lots of an ingredient added in one step share one record")
+  @Test
+  void testAddedLotsShareOneRecord() throws IOException {
+    FoodInventory delivery = new FoodInventory();
+    delivery.addIngredient(
+        new Ingredient("Milk", 1.0, Unit.LITER, LocalDate.now().plusDays(9), 20.0));
+    delivery.addIngredient(
+        new Ingredient("Milk", 1.0, Unit.LITER, LocalDate.now().plusDays(2), 30.0));
+    FoodInventory inventory = new FoodInventory();
+    InventoryJournal journal = openJournal(inventory);
+    inventory.addIngredient(delivery.findIngredientByName("Milk"));
+    journal.close();
+
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.filter(p -> p.getFileName().toString().startsWith("journal-"))
+          .findFirst().orElseThrow();
+    }
+    try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      file.truncate(file.size() - 1);
+    }
+    assertNull(recover().findIngredientByName("Milk"));
+
+    FoodInventory again = new FoodInventory();
+    journal = openJournal(again);
+    again.addIngredient(delivery.findIngredientByName("Milk"));
+    journal.close();
+    Ingredient milk = recover().findIngredientByName("Milk");
+    assertEquals(2, milk.getLotCount());
+    assertEquals(2.0, milk.getQuantity(), 0.0001);
+  }
+
+  @DisplayName("Test that a failed write makes the journal refuse every later mutation")
+  @Test
+  void testFailedWritePoisonsJournal() throws IOException {
+    FoodInventory inventory = new FoodInventory();
+    FlakyChannel[] opened = new FlakyChannel[1];
+    InventoryJournal journal = new InventoryJournal(directory, FsyncPolicy.ALWAYS,
+        Duration.ofMillis(10)) {
+      @Override
+      FileChannel openChannel(Path path) throws IOException {
+        opened[0] = new FlakyChannel(super.openChannel(path));
+        return opened[0];
+      }
+    };
+    journal.recover(inventory);
+    inventory.addIngredient(
+        new Ingredient("Sugar", 500, Unit.GRAM, LocalDate.now().plusDays(365), 10.0));
+
+    opened[0].failing = true;
+    Ingredient salt = new Ingredient("Salt", 1, Unit.KILOGRAM, LocalDate.now().plusDays(365), 8.0);
+    assertThrows(UncheckedIOException.class, () -> inventory.addIngredient(salt));
+    opened[0].failing = false;
+    Ingredient rice = new Ingredient("Rice", 1, Unit.KILOGRAM, LocalDate.now().plusDays(90), 30.0);
+    assertThrows(UncheckedIOException.class, () -> inventory.addIngredient(rice));
+    assertThrows(IOException.class, journal::sync);
+    assertThrows(IOException.class, journal::close);
+    assertNull(inventory.findIngredientByName("Salt"));
+    assertNull(inventory.findIngredientByName("Rice"));
+
+    FoodInventory restored = recover();
+    assertEquals(500, restored.findIngredientByName("Sugar").getQuantity(), 0.0001);
+    assertNull(restored.findIngredientByName("Salt"));
+    assertNull(restored.findIngredientByName("Rice"));
+  }
+
+  @DisplayName("Test that a record with an unknown unit is reported as a corrupt journal")
+  @Test
+  void testRecoverUnknownUnitThrowsException() throws IOException {
+    openJournal(new FoodInventory()).close();
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.filter(p -> p.getFileName().toString().startsWith("journal-"))
+          .findFirst().orElseThrow();
+    }
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(payload);
+    out.writeByte(2);
+    out.writeUTF("Milk");
+    out.writeByte(Unit.values().length);
+    out.writeLong(1_000_000);
+    CRC32 crc = new CRC32();
+    crc.update(payload.toByteArray());
+    ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + payload.size())
+        .putInt(payload.size()).putInt((int) crc.getValue()).put(payload.toByteArray());
+    Files.write(segment, record.array(), StandardOpenOption.APPEND);
+
+    assertThrows(IOException.class, this::recover);
+  }
+
+  @DisplayName("Test that recovering an empty journal reports no state")
+  @Test
+  void testRecoverEmptyJournal() throws IOException {
+    openJournal(new FoodInventory()).close();
+    assertTrue(Files.isDirectory(directory));
+    FoodInventory inventory = new FoodInventory();
+    try (InventoryJournal journal = new InventoryJournal(directory, FsyncPolicy.NEVER,
+        Duration.ofSeconds(1))) {
+      assertFalse(journal.recover(inventory));
+      assertTrue(inventory.getAllIngredientsSortedByName().isEmpty());
+    }
+  }
+
+  @DisplayName("Test that checkpointing before recovery throws an exception")
+  @Test
+  void testCheckpointBeforeRecoverThrowsException() {
+    InventoryJournal journal = new InventoryJournal(directory, FsyncPolicy.INTERVAL,
+        Duration.ofMillis(50));
+
+    assertThrows(IllegalStateException.class, journal::checkpoint);
+  }
+
+  /**
+   * A channel that, while failing, writes half of each buffer and then throws, like a disk that
+   * fills up in the middle of a write.
+   */
+  private static final class FlakyChannel extends FileChannel {
+
+    private final FileChannel delegate;
+    private volatile boolean failing;
+
+    FlakyChannel(FileChannel delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      if (failing) {
+        ByteBuffer half = src.slice(src.position(), src.remaining() / 2);
+        delegate.write(half);
+        throw new IOException("Disk full");
+      }
+      return delegate.write(src);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+      delegate.force(metaData);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      return delegate.read(dst);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+      return delegate.read(dsts, offset, length);
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+      return delegate.read(dst, position);
+    }
+
+    @Override
+    public long position() throws IOException {
+      return delegate.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException {
+      delegate.position(newPosition);
+      return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+      return delegate.size();
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException {
+      delegate.truncate(size);
+      return this;
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target)
+        throws IOException {
+      return delegate.transferTo(position, count, target);
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count)
+        throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+      return delegate.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+      return delegate.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+      return delegate.tryLock(position, size, shared);
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+      delegate.close();
+    }
+  }
+
+  private long countFiles(String prefix) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      List<Path> matching = files.filter(p -> p.getFileName().toString().startsWith(prefix))
+          .toList();
+      return matching.size();
+    }
+  }
+}
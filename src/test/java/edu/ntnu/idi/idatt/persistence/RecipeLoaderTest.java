@@ -0,0 +1,130 @@
+package edu.ntnu.idi.idatt.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.ntnu.idi.idatt.model.Cookbook;
+import edu.ntnu.idi.idatt.model.IngredientRequirement;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link RecipeLoader} class.
+ */
+class RecipeLoaderTest {
+
+  private Cookbook cookbook;
+
+  @BeforeEach
+  void setUp() {
+    cookbook = new Cookbook();
+  }
+
+  private static String recipeLine(String name, int servings) {
+    return "{\"name\": \"" + name + "\", \"description\": \"Tasty\", "
+        + "\"preparationMethod\": \"Cook it.\", \"servings\": " + servings + ", "
+        + "\"tags\": [\"quick\", {\"level\": 1}], "
+        + "\"ingredients\": [{\"name\": \"Flour\", \"quantity\": 200, \"unit\": \"g\"}, "
+        + "{\"unit\": \"dl\", \"quantity\": \"3\", \"name\": \"Milk\"}]}";
+  }
+
+  private ImportReport load(String text) throws IOException {
+    return new RecipeLoader(cookbook, new ForkJoinPool(4))
+        .load(new BufferedReader(new StringReader(text)));
+  }
+
+  @DisplayName("Test loading recipes with their ingredients")
+  @Test
+  void testLoad() throws IOException {
+    ImportReport report = load(recipeLine("Pancakes", 4) + "\n\n" + recipeLine("Waffles", 2));
+
+    assertEquals(new ImportReport(2, 0, List.of()), report);
+    Recipe pancakes = cookbook.findRecipeByName("pancakes");
+    assertEquals(4, pancakes.getServings());
+    IngredientRequirement milk = pancakes.getIngredients().get("milk");
+    assertEquals(3, milk.getQuantity(), 1e-9);
+    assertEquals(Unit.DECILITER, milk.getUnit());
+  }
+
+  @DisplayName("Test that the earliest line wins duplicates across chunks")
+  @Test
+  void testLoadDuplicatesAcrossChunks() throws IOException {
+    StringBuilder text = new StringBuilder();
+    int lines = RecipeLoader.CHUNK_SIZE * 6;
+    for (int i = 1; i <= lines; i++) {
+      text.append(recipeLine(i % RecipeLoader.CHUNK_SIZE == 7 ? "Pancakes" : "Recipe " + i, i))
+          .append('\n');
+    }
+
+    ImportReport report = load(text.toString());
+
+    assertEquals(lines - 5, report.imported());
+    assertEquals(5, report.failed());
+    assertEquals(7, cookbook.findRecipeByName("Pancakes").getServings());
+    assertEquals(new ImportReport.RowError(RecipeLoader.CHUNK_SIZE + 7,
+        "Duplicate recipe in file: Pancakes"), report.errors().get(0));
+  }
+
+  @DisplayName("Test that bad lines and recipes already in the cookbook are reported")
+  @Test
+  void testLoadReportsErrors() throws IOException {
+    cookbook.addRecipe(new Recipe("Waffles", "Crispy", "Bake.", 2));
+
+    ImportReport report = load(recipeLine("Pancakes", 4) + "\n"
+        + "{\"name\": \"Toast\"\n"
+        + recipeLine("Waffles", 2) + "\n"
+        + recipeLine("Crepes", 0) + "\n"
+        + "{\"name\": \"Soup\", \"description\": \"Hot\", \"preparationMethod\": \"Boil.\", "
+        + "\"servings\": 2, \"ingredients\": [{\"name\": \"Water\", \"quantity\": 1, "
+        + "\"unit\": \"cup\"}]}\n");
+
+    assertEquals(1, report.imported());
+    assertEquals(List.of(2L, 3L, 4L, 5L),
+        report.errors().stream().map(ImportReport.RowError::line).toList());
+    assertEquals("Recipe already exists in the cookbook: Waffles",
+        report.errors().get(1).message());
+    assertEquals("Unknown unit: cup", report.errors().get(3).message());
+  }
+
+  @DisplayName("Test that deeply nested values and many bad lines are reported as row errors")
+  @Test
+  void testLoadBoundsNestingAndErrors() throws IOException {
+    StringBuilder text = new StringBuilder("{\"tags\": " + "[".repeat(100_000) + "}\n");
+    for (int i = 0; i < 3000; i++) {
+      text.append("not json\n");
+    }
+    text.append(recipeLine("Pancakes", 4));
+
+    ImportReport report = load(text.toString());
+
+    assertEquals(1, report.imported());
+    assertEquals(3001, report.failed());
+    assertEquals(IngredientImporter.MAX_REPORTED_ERRORS, report.errors().size());
+    assertEquals(new ImportReport.RowError(1, "JSON is nested too deeply."),
+        report.errors().get(0));
+    assertEquals(IngredientImporter.MAX_REPORTED_ERRORS,
+        report.errors().get(report.errors().size() - 1).line());
+  }
+
+  @DisplayName("Test loading a file and rejecting invalid arguments")
+  @Test
+  void testLoadFile(@TempDir Path directory) throws IOException {
+    Path file = directory.resolve("recipes.jsonl");
+    Files.writeString(file, recipeLine("Pancakes", 4) + "\n");
+
+    assertEquals(1, new RecipeLoader(cookbook).load(file).imported());
+    assertThrows(IllegalArgumentException.class, () -> new RecipeLoader(null));
+    assertThrows(IllegalArgumentException.class, () -> new RecipeLoader(cookbook, null));
+  }
+}
@@ -0,0 +1,120 @@
+package edu.ntnu.idi.idatt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idi.idatt.model.FoodInventory;
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.MealPlan;
+import edu.ntnu.idi.idatt.model.PlannedMeal;
+import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.Unit;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link MealPlanner} class.
+ */
+class MealPlannerTest {
+
+  private LocalDate today;
+  private FoodInventory inventory;
+  private Recipe fishSoup;
+  private Recipe stew;
+
+  @BeforeEach
+  void setUp() {
+    today = LocalDate.now();
+    inventory = new FoodInventory();
+    inventory.addIngredient(new Ingredient("Fish", 1, Unit.PIECE, today, 10));
+    inventory.addIngredient(new Ingredient("Carrots", 1, Unit.PIECE, today.plusDays(1), 10));
+    inventory.addIngredient(new Ingredient("Potatoes", 1, Unit.PIECE, today.plusDays(1), 10));
+
+    fishSoup = new Recipe("Fish soup", "Soup", "Boil the fish.", 2);
+    fishSoup.addIngredient("Fish", 1, Unit.PIECE);
+    stew = new Recipe("Stew", "Stew", "Boil the vegetables.", 2);
+    stew.addIngredient("Carrots", 1, Unit.PIECE);
+    stew.addIngredient("Potatoes", 1, Unit.PIECE);
+  }
+
+  @DisplayName("Test that local search improves on the greedy plan")
+  @Test
+  void testPlanImprovesOnGreedy() {
+    MealPlanner planner = new MealPlanner(Duration.ofMillis(50));
+
+    MealPlan plan = planner.plan(List.of(fishSoup, stew), inventory, today, 2);
+
+    assertEquals(30, plan.rescuedValue(), 0.0001);
+    assertEquals(List.of(new PlannedMeal(today, fishSoup),
+        new PlannedMeal(today.plusDays(1), stew)), plan.meals());
+  }
+
+  @DisplayName("Test that local search stops once it stops finding better plans")
+  @Test
+  void testPlanStopsBeforeBudgetWhenConverged() {
+    MealPlanner planner = new MealPlanner(Duration.ofMinutes(1));
+
+    long started = System.nanoTime();
+    MealPlan plan = planner.plan(List.of(fishSoup, stew), inventory, today, 2);
+    MealPlan single = planner.plan(List.of(fishSoup), inventory, today, 5);
+
+    assertTrue(System.nanoTime() - started < Duration.ofSeconds(10).toNanos());
+    assertEquals(30, plan.rescuedValue(), 0.0001);
+    assertEquals(List.of(new PlannedMeal(today, fishSoup)), single.meals());
+  }
+
+  @DisplayName("Test that stock outliving the horizon is not planned for")
+  @Test
+  void testPlanIgnoresStockNotAtRisk() {
+    inventory.addIngredient(new Ingredient("Rice", 1, Unit.KILOGRAM, today.plusDays(30), 25));
+    Recipe rice = new Recipe("Rice", "Rice", "Boil the rice.", 2);
+    rice.addIngredient("Rice", 200, Unit.GRAM);
+    MealPlanner planner = new MealPlanner(Duration.ofMillis(10));
+
+    MealPlan plan = planner.plan(List.of(rice), inventory, today, 3);
+
+    assertTrue(plan.meals().isEmpty());
+    assertEquals(0, plan.rescuedValue());
+  }
+
+  @DisplayName("Test that later lots stay usable after the earliest lot has expired")
+  @Test
+  void testPlanUsesLotsSeparately() {
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.LITER, today, 20));
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.LITER, today.plusDays(1), 30));
+    inventory.addIngredient(new Ingredient("Milk", 1, Unit.LITER, today.plusDays(30), 10));
+    Recipe porridge = new Recipe("Porridge", "Porridge", "Boil the milk.", 2);
+    porridge.addIngredient("Milk", 1, Unit.LITER);
+    MealPlanner planner = new MealPlanner(Duration.ofMillis(10));
+
+    MealPlan plan = planner.plan(List.of(porridge), inventory, today, 3);
+
+    assertEquals(50, plan.rescuedValue(), 0.0001);
+    assertEquals(List.of(new PlannedMeal(today, porridge),
+        new PlannedMeal(today.plusDays(1), porridge)), plan.meals());
+  }
+
+  @DisplayName("Test that planning does not change the inventory")
+  @Test
+  void testPlanDoesNotModifyInventory() {
+    new MealPlanner(Duration.ofMillis(5)).plan(List.of(fishSoup, stew), inventory, today, 2);
+
+    assertEquals(1, inventory.findIngredientByName("Fish").getQuantity(), 0.0001);
+  }
+
+  @DisplayName("Test that invalid arguments throw exceptions")
+  @Test
+  void testInvalidArgumentsThrowExceptions() {
+    MealPlanner planner = new MealPlanner();
+
+    assertThrows(IllegalArgumentException.class, () -> new MealPlanner(Duration.ZERO));
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> planner.plan(List.of(stew), inventory, today, 0));
+    assertEquals("Days must be positive.", exception.getMessage());
+  }
+}
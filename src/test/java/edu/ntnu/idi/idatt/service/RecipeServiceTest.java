@@ -8,8 +8,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import edu.ntnu.idi.idatt.model.Recipe;
+import edu.ntnu.idi.idatt.model.RecipeBatches;
 import edu.ntnu.idi.idatt.model.Unit;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -145,4 +147,40 @@ class RecipeServiceTest {
     assertEquals(1, availableRecipes.size());
     assertEquals("Omelette", availableRecipes.get(0).getName());
   }
+
+  @DisplayName("Test cooking several recipes in one call deducts their combined requirements")
+  @Test
+  void testCookRecipes() {
+    Recipe pancakes = recipeService.findRecipeByName("Pancakes");
+    Recipe omelette = recipeService.findRecipeByName("Omelette");
+
+    boolean cooked = recipeService.cookRecipes(Map.of(pancakes, 4, omelette, 2),
+        inventoryService.getFoodInventory());
+
+    assertTrue(cooked);
+    assertEquals(7, inventoryService.findIngredientByName("Eggs").getQuantity(), 0.0001);
+    assertEquals(1.65, inventoryService.findIngredientByName("Milk").getQuantity(), 0.0001);
+  }
+
+  @DisplayName("Test cooking a recipe with null inventory throws an exception")
+  @Test
+  void testCookRecipeNullInventoryThrowsException() {
+    Recipe pancakes = recipeService.findRecipeByName("Pancakes");
+
+    assertThrows(IllegalArgumentException.class,
+        () -> recipeService.cookRecipe(pancakes, 4, null));
+  }
+
+  @DisplayName("Test getting max batches for every recipe, most batches first")
+  @Test
+  void testGetMaxBatches() {
+    List<RecipeBatches> batches = recipeService.getMaxBatches(
+        inventoryService.getFoodInventory());
+
+    assertEquals(2, batches.size());
+    assertEquals("Pancakes", batches.get(0).recipe().getName());
+    assertEquals(5, batches.get(0).batches());
+    assertEquals("Omelette", batches.get(1).recipe().getName());
+    assertEquals(4, batches.get(1).batches());
+  }
 }
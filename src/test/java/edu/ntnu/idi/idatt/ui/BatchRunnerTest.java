@@ -0,0 +1,149 @@
+package edu.ntnu.idi.idatt.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ntnu.idi.idatt.model.Ingredient;
+import edu.ntnu.idi.idatt.model.InventoryListener;
+import edu.ntnu.idi.idatt.model.Unit;
+import edu.ntnu.idi.idatt.service.InventoryService;
+import edu.ntnu.idi.idatt.service.RecipeService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link BatchRunner} class.
+ */
+class BatchRunnerTest {
+
+  private InventoryService inventoryService;
+  private StringWriter out;
+  private BatchRunner runner;
+  private LocalDate date;
+
+  @BeforeEach
+  void setUp() {
+    inventoryService = new InventoryService();
+    out = new StringWriter();
+    runner = new BatchRunner(inventoryService, new RecipeService(), out);
+    date = LocalDate.now().plusDays(7);
+  }
+
+  private long run(String script) throws IOException {
+    return runner.run(new BufferedReader(new StringReader(script)));
+  }
+
+  @DisplayName("Test that commands change the services and report ok")
+  @Test
+  void testRunAddsIngredients() throws IOException {
+    long failures = run("add-ingredient Milk 2 L " + date + " 20\n"
+        + "# comment\n"
+        + "\n"
+        + "remove milk 5 dl\n"
+        + "find-ingredient MILK\n");
+
+    assertEquals(0, failures);
+    assertEquals("ok\nok\ningredient\tMilk\t1.5\tL\t" + date + "\t20.0\nok\n", out.toString());
+    assertEquals(1.5, inventoryService.findIngredientByName("Milk").getQuantity(), 1e-9);
+  }
+
+  @DisplayName("Test that recipes can be added, checked and cooked")
+  @Test
+  void testRunRecipes() throws IOException {
+    long failures = run("add-ingredient Eggs 6 pcs " + date + " 3\n"
+        + "add-recipe Omelette \"Quick \\\"fluffy\\\" omelette\" \"Whisk and fry.\" 1"
+        + " Eggs 2 pcs\n"
+        + "can-make omelette\n"
+        + "cook Omelette 2\n"
+        + "find-ingredient eggs\n");
+
+    assertEquals(0, failures);
+    assertEquals("ok\nok\ncan-make\tOmelette\ttrue\nok\nok\n"
+        + "ingredient\tEggs\t2.0\tpcs\t" + date + "\t3.0\nok\n", out.toString());
+  }
+
+  @DisplayName("Test that failing commands report their line and do not stop the batch")
+  @Test
+  void testRunReportsErrors() throws IOException {
+    long failures = run("bake bread\n"
+        + "add-ingredient Milk two L " + date + " 20\n"
+        + "remove Milk 1 cup\n"
+        + "list-recipes\n");
+
+    assertEquals(3, failures);
+    assertEquals("error\t1\tUnknown command: bake\n"
+        + "error\t2\tInvalid number: two\n"
+        + "error\t3\tUnknown unit: cup\n"
+        + "ok\n", out.toString());
+  }
+
+  @DisplayName("Test that an unexpected exception fails only its command")
+  @Test
+  void testRunSurvivesUnexpectedExceptions() throws IOException {
+    inventoryService.getFoodInventory().addListener(new InventoryListener() {
+      @Override
+      public void ingredientAdded(Ingredient ingredient) {
+        if (ingredient.getName().equals("Broken")) {
+          throw new UncheckedIOException(new IOException("Disk full"));
+        }
+      }
+
+      @Override
+      public void quantityRemoved(String name, long baseQuantity, Unit unit) {
+      }
+    });
+
+    long failures = run("add-ingredient Broken 1 pcs " + date + " 5\n"
+        + "add-ingredient Milk 1 L " + date + " 20\n");
+
+    assertEquals(1, failures);
+    assertEquals("error\t1\tjava.io.IOException: Disk full\nok\n", out.toString());
+  }
+
+  @DisplayName("Test that tokens are split on whitespace and quotes")
+  @Test
+  void testTokenize() {
+    assertEquals(List.of("add-recipe", "Pan cakes", "a\"b", "x"),
+        runner.tokenize("  add-recipe \"Pan cakes\"\t\"a\\\"b\" x "));
+    assertEquals(List.of(), runner.tokenize("   "));
+
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> runner.tokenize("find-recipe \"Pan"));
+    assertEquals("Unterminated quote.", exception.getMessage());
+  }
+
+  @DisplayName("Test parsing units by abbreviation and name")
+  @Test
+  void testUnitParse() {
+    assertEquals(Unit.DECILITER, Unit.parse("DL"));
+    assertEquals(Unit.KILOGRAM, Unit.parse("kilogram"));
+    assertNotNull(Unit.parse("pcs"));
+    assertThrows(IllegalArgumentException.class, () -> Unit.parse(null));
+  }
+
+  @DisplayName("Test that the import command reports row errors and totals")
+  @Test
+  void testRunImport(@TempDir Path directory) throws IOException {
+    Path file = directory.resolve("delivery.csv");
+    Files.writeString(file, "Milk,2,L," + date + ",20\nBread,1,cup," + date + ",25\n");
+
+    long failures = run("import \"" + file + "\"\nimport " + directory.resolve("none.csv") + "\n");
+
+    assertEquals(1, failures);
+    assertTrue(out.toString().startsWith(
+        "row-error\t2\tUnknown unit: cup\nimported\t1\t1\nok\nerror\t2\tCould not read "));
+  }
+}